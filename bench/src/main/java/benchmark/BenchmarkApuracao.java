@@ -0,0 +1,194 @@
+package benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import domain.Candidato;
+import domain.Eleicao;
+import domain.LoteVotos;
+import domain.VersaoApuracao;
+import domain.Voto;
+import io.AcumuladorVotos;
+import io.CandidatoReader;
+import io.VotoReader;
+import report.Relatorio;
+import services.VotacaoService;
+
+/**
+ * Benchmarks JMH dos caminhos críticos da apuração: leitura de candidatos e de votos,
+ * contagem dos votos, ranking de mais votados e geração do relatório completo.
+ * <p>
+ * Cada tamanho do parâmetro {@code secoes} é um município gerado pelo {@link GeradorDados}
+ * com semente fixa; o número de candidatos cresce junto, um por partido a cada 20 seções.
+ * Os dados são gerados uma vez por tamanho, fora do tempo medido, e apagados ao final.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkApuracao {
+    private static final String MUNICIPIO = GeradorDados.getCodigoMunicipio(0);
+    private static final LocalDate DATA_ELEICAO = LocalDate.of(2024, 10, 6);
+
+    @Param({ "100", "1000", "5000" })
+    public int secoes;
+
+    private Path diretorio;
+    private String candidatosCSV;
+    private String votosCSV;
+    private List<Voto> votos;
+    private List<LoteVotos> lotes;
+    private Set<Voto> agregados;
+    private Eleicao apurada;
+
+    /**
+     * Eleição recém-criada a cada chamada, pois a contagem altera a votação da eleição.
+     */
+    @State(Scope.Thread)
+    public static class EleicaoVazia {
+        Eleicao eleicao;
+
+        @Setup(Level.Invocation)
+        public void cria(BenchmarkApuracao dados) {
+            eleicao = novaEleicao(dados.candidatosCSV);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void geraDados() throws IOException {
+        GeradorDados gerador = new GeradorDados();
+        gerador.setNumMunicipios(1);
+        gerador.setNumSecoes(secoes);
+        int candidatosPorPartido = Math.min(GeradorDados.MAX_CANDIDATOS_POR_PARTIDO, secoes / 20);
+        gerador.setCandidatosPorPartido(Math.max(5, candidatosPorPartido));
+
+        diretorio = Files.createTempDirectory("bench-eleicao");
+        gerador.gera(diretorio);
+        candidatosCSV = diretorio.resolve("candidatos.csv").toString();
+        votosCSV = diretorio.resolve("votos.csv").toString();
+
+        votos = new ArrayList<>();
+        VotoReader.readVotos(votosCSV, MUNICIPIO, votos::add);
+        lotes = new ArrayList<>();
+        VotoReader.readLotes(votosCSV, MUNICIPIO, lote -> lotes.add(copia(lote)));
+        agregados = VotoReader.readVotos(votosCSV, MUNICIPIO);
+
+        apurada = novaEleicao(candidatosCSV);
+        new VotacaoService(apurada).computaVotos(votos);
+    }
+
+    @TearDown(Level.Trial)
+    public void apagaDados() throws IOException {
+        try (var caminhos = Files.walk(diretorio)) {
+            for (Path caminho : (Iterable<Path>) caminhos.sorted((a, b) -> b.compareTo(a))::iterator) {
+                Files.delete(caminho);
+            }
+        }
+    }
+
+    @Benchmark
+    public Set<Candidato> readCandidatos() {
+        return CandidatoReader.readCandidatos(candidatosCSV);
+    }
+
+    @Benchmark
+    public long readVotos() {
+        long[] soma = new long[1];
+        VotoReader.readVotos(votosCSV, MUNICIPIO, voto -> soma[0] += voto.getQuantidade());
+        return soma[0];
+    }
+
+    @Benchmark
+    public long readLotes() {
+        long[] soma = new long[1];
+        VotoReader.readLotes(votosCSV, MUNICIPIO, lote -> {
+            for (int i = 0; i < lote.size(); i++) {
+                soma[0] += lote.getQuantidade(i);
+            }
+        });
+        return soma[0];
+    }
+
+    @Benchmark
+    public AcumuladorVotos contaVotos() {
+        return VotoReader.contaVotos(votosCSV, MUNICIPIO);
+    }
+
+    @Benchmark
+    public VersaoApuracao computaVotos(EleicaoVazia estado) {
+        new VotacaoService(estado.eleicao).computaVotos(votos);
+        return estado.eleicao.getVersao();
+    }
+
+    @Benchmark
+    public VersaoApuracao computaVotosLotes(EleicaoVazia estado) {
+        VotacaoService votacaoService = new VotacaoService(estado.eleicao);
+        for (LoteVotos lote : lotes) {
+            votacaoService.computaVotos(lote);
+        }
+        return estado.eleicao.getVersao();
+    }
+
+    @Benchmark
+    public VersaoApuracao computaVotosAgregados(EleicaoVazia estado) {
+        new VotacaoService(estado.eleicao).computaVotos(agregados);
+        return estado.eleicao.getVersao();
+    }
+
+    @Benchmark
+    public List<Candidato> getCandidatosMaisVotados() {
+        return apurada.getCandidatosMaisVotados();
+    }
+
+    @Benchmark
+    public List<Candidato> getCandidatosMaisVotadosNumVagas() {
+        return apurada.getCandidatosMaisVotados(apurada.getNumVagas());
+    }
+
+    @Benchmark
+    public Relatorio relatorio() {
+        Relatorio relatorio = new Relatorio(apurada.getResultado(), Writer.nullWriter());
+        relatorio.imprimeTodos(DATA_ELEICAO);
+        return relatorio;
+    }
+
+    /**
+     * Cria uma eleição com candidatos recém-lidos, pois a contagem altera os candidatos.
+     */
+    private static Eleicao novaEleicao(String candidatosCSV) {
+        Eleicao eleicao = new Eleicao(MUNICIPIO);
+        eleicao.addCandidatos(CandidatoReader.readCandidatos(candidatosCSV));
+        return eleicao;
+    }
+
+    private static LoteVotos copia(LoteVotos lote) {
+        LoteVotos copia = new LoteVotos(lote.size());
+        for (int i = 0; i < lote.size(); i++) {
+            copia.adiciona(lote.getIdMunicipio(i), lote.getCodigoCargo(i), lote.getNumVotavel(i), lote.getQuantidade(i));
+        }
+        return copia;
+    }
+}
@@ -0,0 +1,466 @@
+package benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Gerador de arquivos sintéticos de candidatos e de votação por seção no formato do TSE
+ * (campos entre aspas separados por ";", codificação ISO-8859-1), com os cabeçalhos lidos
+ * pelo CandidatoReader e pelo VotoReader, para testes de carga sem dados reais.
+ * <p>
+ * Cada município tem os mesmos partidos, com candidatos a vereador e alguns a prefeito. A
+ * popularidade dos candidatos a vereador segue uma distribuição de Zipf, cujo expoente
+ * ({@code assimetria}) controla a concentração dos votos; em cada seção, a quantidade de votos
+ * de cada votável é sorteada a partir da sua popularidade, e apenas votáveis com votos geram
+ * linhas, como no arquivo real. A mesma semente gera sempre os mesmos arquivos.
+ * <p>
+ * Uso: {@code java benchmark.GeradorDados --saida=dir [--municipios=N] [--partidos=N]
+ * [--candidatos-por-partido=N] [--secoes=N] [--eleitores-por-secao=N] [--assimetria=X]
+ * [--semente=N]}
+ */
+public class GeradorDados {
+    private static final int[] NUMEROS_PARTIDOS = {
+        10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 25, 27, 28,
+        29, 30, 33, 35, 36, 40, 43, 44, 45, 50, 51, 55, 65, 70, 77, 80, 90
+    };
+    private static final String[] NOMES = {
+        "JOSÉ", "MARIA", "JOÃO", "ANA", "CONCEIÇÃO", "PAULO", "LÚCIA", "ANDRÉ", "ÉRICA", "OTÁVIO",
+        "SEBASTIÃO", "INÊS", "ANTÔNIO", "FÁTIMA", "LUÍS", "GRAÇA", "MÁRCIO", "CÉLIA", "RÔMULO", "JÚLIA"
+    };
+    private static final String CABECALHO_CANDIDATOS = cabecalho(
+        "DT_GERACAO", "HH_GERACAO", "ANO_ELEICAO", "NR_TURNO", "TP_ABRANGENCIA", "SG_UF", "SG_UE", "NM_UE",
+        "CD_CARGO", "DS_CARGO", "SQ_CANDIDATO", "NR_CANDIDATO", "NM_CANDIDATO", "NM_URNA_CANDIDATO",
+        "CD_SITUACAO_CANDIDATURA", "DS_SITUACAO_CANDIDATURA", "TP_AGREMIACAO", "NR_PARTIDO", "SG_PARTIDO",
+        "NM_PARTIDO", "NR_FEDERACAO", "NM_FEDERACAO", "SG_FEDERACAO", "DT_NASCIMENTO", "CD_GENERO",
+        "DS_GENERO", "CD_SIT_TOT_TURNO", "DS_SIT_TOT_TURNO");
+    private static final String CABECALHO_VOTOS = cabecalho(
+        "DT_GERACAO", "HH_GERACAO", "ANO_ELEICAO", "NR_TURNO", "SG_UF", "SG_UE", "NM_UE", "CD_MUNICIPIO",
+        "NM_MUNICIPIO", "NR_ZONA", "NR_SECAO", "CD_CARGO", "DS_CARGO", "NR_VOTAVEL", "NM_VOTAVEL", "QT_VOTOS",
+        "NR_LOCAL_VOTACAO");
+
+    private static final int CARGO_PREFEITO = 11;
+    private static final int CARGO_VEREADOR = 13;
+
+    /** Maior número de candidatos por partido para o qual os números dos vereadores não colidem. */
+    public static final int MAX_CANDIDATOS_POR_PARTIDO = 900;
+
+    // Parcela dos votos de vereador que vai para legendas e para brancos e nulos.
+    private static final double PARCELA_LEGENDA = 0.08;
+    private static final double PARCELA_BRANCOS_NULOS = 0.07;
+
+    private int numMunicipios = 3;
+    private int numPartidos = 20;
+    private int candidatosPorPartido = 10;
+    private int numSecoes = 200;
+    private int eleitoresPorSecao = 300;
+    private double assimetria = 1.0;
+    private long semente = 42;
+
+    public void setNumMunicipios(int numMunicipios) {
+        this.numMunicipios = verificaPositivo(numMunicipios, "municípios");
+    }
+
+    public void setNumPartidos(int numPartidos) {
+        if (numPartidos < 1 || numPartidos > NUMEROS_PARTIDOS.length) {
+            throw new IllegalArgumentException("Número de partidos deve estar entre 1 e " + NUMEROS_PARTIDOS.length);
+        }
+        this.numPartidos = numPartidos;
+    }
+
+    public void setCandidatosPorPartido(int candidatosPorPartido) {
+        if (candidatosPorPartido < 1 || candidatosPorPartido > MAX_CANDIDATOS_POR_PARTIDO) {
+            throw new IllegalArgumentException(
+                "Candidatos por partido deve estar entre 1 e " + MAX_CANDIDATOS_POR_PARTIDO);
+        }
+        this.candidatosPorPartido = candidatosPorPartido;
+    }
+
+    public void setNumSecoes(int numSecoes) {
+        this.numSecoes = verificaPositivo(numSecoes, "seções");
+    }
+
+    public void setEleitoresPorSecao(int eleitoresPorSecao) {
+        this.eleitoresPorSecao = verificaPositivo(eleitoresPorSecao, "eleitores por seção");
+    }
+
+    public void setAssimetria(double assimetria) {
+        if (assimetria < 0) {
+            throw new IllegalArgumentException("Assimetria não pode ser negativa");
+        }
+        this.assimetria = assimetria;
+    }
+
+    public void setSemente(long semente) {
+        this.semente = semente;
+    }
+
+    /**
+     * Retorna o código do município de índice informado nos arquivos gerados.
+     *
+     * @param indice índice do município, a partir de 0
+     * @return código do município
+     */
+    public static String getCodigoMunicipio(int indice) {
+        return String.format("%05d", 10000 + indice * 7);
+    }
+
+    /**
+     * Gera os arquivos candidatos.csv e votos.csv no diretório informado.
+     *
+     * @param diretorio diretório de saída
+     * @return número de linhas de votos geradas
+     * @throws IOException se ocorrer erro na escrita
+     */
+    public long gera(Path diretorio) throws IOException {
+        Files.createDirectories(diretorio);
+        SplittableRandom random = new SplittableRandom(semente);
+        long numLinhas = 0;
+
+        try (Writer candidatos = abre(diretorio.resolve("candidatos.csv"));
+                Writer votos = abre(diretorio.resolve("votos.csv"))) {
+            candidatos.write(CABECALHO_CANDIDATOS);
+            votos.write(CABECALHO_VOTOS);
+
+            for (int m = 0; m < numMunicipios; m++) {
+                Municipio municipio = new Municipio(getCodigoMunicipio(m), random.split());
+                municipio.escreveCandidatos(candidatos);
+                numLinhas += municipio.escreveVotos(votos);
+            }
+        }
+        return numLinhas;
+    }
+
+    /**
+     * Candidatos e popularidades de um município.
+     */
+    private class Municipio {
+        final String codigo;
+        final SplittableRandom random;
+        final int[] numerosVereadores;
+        final double[] pesosVereadores;
+        final int[] numerosPrefeitos;
+        final double[] pesosPrefeitos;
+
+        Municipio(String codigo, SplittableRandom random) {
+            this.codigo = codigo;
+            this.random = random;
+
+            int numVereadores = numPartidos * candidatosPorPartido;
+            numerosVereadores = new int[numVereadores];
+            for (int i = 0; i < numVereadores; i++) {
+                numerosVereadores[i] = NUMEROS_PARTIDOS[i / candidatosPorPartido] * 1000 + 100 + i % candidatosPorPartido;
+            }
+            // A posição de cada candidato no ranking de popularidade é sorteada.
+            pesosVereadores = pesosZipf(numVereadores);
+            embaralha(pesosVereadores);
+
+            int numPrefeitos = Math.min(numPartidos, 2 + random.nextInt(4));
+            numerosPrefeitos = new int[numPrefeitos];
+            for (int i = 0; i < numPrefeitos; i++) {
+                numerosPrefeitos[i] = NUMEROS_PARTIDOS[i];
+            }
+            pesosPrefeitos = pesosZipf(numPrefeitos);
+            embaralha(pesosPrefeitos);
+        }
+
+        void escreveCandidatos(Writer saida) throws IOException {
+            int numVagas = Math.max(9, numerosVereadores.length / 15);
+            int[] ranking = ordemDecrescente(pesosVereadores);
+            int[] posicoes = new int[ranking.length];
+            for (int i = 0; i < ranking.length; i++) {
+                posicoes[ranking[i]] = i;
+            }
+
+            StringBuilder linha = new StringBuilder(512);
+            for (int i = 0; i < numerosVereadores.length; i++) {
+                int situacao;
+                if (random.nextInt(100) < 3) {
+                    situacao = -1;
+                } else if (posicoes[i] < numVagas) {
+                    situacao = random.nextInt(4) == 0 ? 3 : 2;
+                } else {
+                    situacao = posicoes[i] < numVagas * 3 ? 5 : 4;
+                }
+                linhaCandidato(linha, CARGO_VEREADOR, numerosVereadores[i], situacao);
+                saida.append(linha);
+            }
+
+            int eleito = ordemDecrescente(pesosPrefeitos)[0];
+            for (int i = 0; i < numerosPrefeitos.length; i++) {
+                linhaCandidato(linha, CARGO_PREFEITO, numerosPrefeitos[i], i == eleito ? 1 : 4);
+                saida.append(linha);
+            }
+        }
+
+        private void linhaCandidato(StringBuilder linha, int cargo, int numero, int situacao) {
+            int numeroPartido = cargo == CARGO_PREFEITO ? numero : numero / 1000;
+            int federacao = federacao(numeroPartido);
+            String nome = NOMES[random.nextInt(NOMES.length)] + " " + NOMES[random.nextInt(NOMES.length)];
+            int genero = random.nextInt(3) == 0 ? 4 : 2;
+            String nascimento = String.format("%02d/%02d/%d",
+                1 + random.nextInt(28), 1 + random.nextInt(12), 1950 + random.nextInt(55));
+
+            linha.setLength(0);
+            campo(linha, "06/10/2024").append(';');
+            campo(linha, "10:00:00").append(';');
+            campo(linha, "2024").append(';');
+            campo(linha, "1").append(';');
+            campo(linha, "MUNICIPAL").append(';');
+            campo(linha, "SP").append(';');
+            campo(linha, codigo).append(';');
+            campo(linha, "MUNICÍPIO " + codigo).append(';');
+            campo(linha, cargo).append(';');
+            campo(linha, cargo == CARGO_PREFEITO ? "PREFEITO" : "VEREADOR").append(';');
+            campo(linha, codigo + numero).append(';');
+            campo(linha, numero).append(';');
+            campo(linha, "NOME COMPLETO DE " + nome).append(';');
+            campo(linha, nome + " " + numero).append(';');
+            campo(linha, situacao == -1 ? 3 : 12).append(';');
+            campo(linha, situacao == -1 ? "INAPTO" : "APTO").append(';');
+            campo(linha, federacao == -1 ? "PARTIDO ISOLADO" : "FEDERAÇÃO").append(';');
+            campo(linha, numeroPartido).append(';');
+            campo(linha, "P" + numeroPartido).append(';');
+            campo(linha, "PARTIDO NÚMERO " + numeroPartido).append(';');
+            campo(linha, federacao).append(';');
+            campo(linha, federacao == -1 ? "#NULO#" : "FEDERAÇÃO " + federacao).append(';');
+            campo(linha, federacao == -1 ? "#NULO#" : "F" + federacao).append(';');
+            campo(linha, nascimento).append(';');
+            campo(linha, genero).append(';');
+            campo(linha, genero == 4 ? "FEMININO" : "MASCULINO").append(';');
+            campo(linha, situacao).append(';');
+            campo(linha, descricaoSituacao(situacao)).append('\n');
+        }
+
+        long escreveVotos(Writer saida) throws IOException {
+            double[] pesosLegenda = pesosZipf(numPartidos);
+            embaralha(pesosLegenda);
+            double somaVereadores = soma(pesosVereadores);
+            double somaLegenda = soma(pesosLegenda);
+            double somaPrefeitos = soma(pesosPrefeitos);
+            double parcelaNominal = 1 - PARCELA_LEGENDA - PARCELA_BRANCOS_NULOS;
+
+            StringBuilder prefixo = new StringBuilder(128);
+            StringBuilder linha = new StringBuilder(256);
+            long numLinhas = 0;
+
+            for (int secao = 1; secao <= numSecoes; secao++) {
+                prefixo.setLength(0);
+                campo(prefixo, "06/10/2024").append(';');
+                campo(prefixo, "10:00:00").append(';');
+                prefixo.append("2024;1;");
+                campo(prefixo, "SP").append(';');
+                campo(prefixo, codigo).append(';');
+                campo(prefixo, "MUNICÍPIO " + codigo).append(';');
+                campo(prefixo, codigo).append(';');
+                campo(prefixo, "MUNICÍPIO " + codigo).append(';');
+                prefixo.append(1 + (secao - 1) / 400).append(';').append(secao).append(';');
+
+                for (int i = 0; i < numerosVereadores.length; i++) {
+                    numLinhas += linhaVoto(saida, linha, prefixo, CARGO_VEREADOR, numerosVereadores[i],
+                        eleitoresPorSecao * parcelaNominal * pesosVereadores[i] / somaVereadores);
+                }
+                for (int i = 0; i < numPartidos; i++) {
+                    numLinhas += linhaVoto(saida, linha, prefixo, CARGO_VEREADOR, NUMEROS_PARTIDOS[i],
+                        eleitoresPorSecao * PARCELA_LEGENDA * pesosLegenda[i] / somaLegenda);
+                }
+                numLinhas += linhaVoto(saida, linha, prefixo, CARGO_VEREADOR, 95,
+                    eleitoresPorSecao * PARCELA_BRANCOS_NULOS / 2);
+                numLinhas += linhaVoto(saida, linha, prefixo, CARGO_VEREADOR, 96,
+                    eleitoresPorSecao * PARCELA_BRANCOS_NULOS / 2);
+
+                for (int i = 0; i < numerosPrefeitos.length; i++) {
+                    numLinhas += linhaVoto(saida, linha, prefixo, CARGO_PREFEITO, numerosPrefeitos[i],
+                        eleitoresPorSecao * (1 - PARCELA_BRANCOS_NULOS) * pesosPrefeitos[i] / somaPrefeitos);
+                }
+            }
+            return numLinhas;
+        }
+
+        /**
+         * Sorteia a quantidade de votos do votável na seção e escreve a linha, se houver votos.
+         *
+         * @return 1 se a linha foi escrita, 0 caso contrário
+         */
+        private int linhaVoto(Writer saida, StringBuilder linha, StringBuilder prefixo, int cargo,
+                int numVotavel, double media) throws IOException {
+            int quantidade = sorteiaPoisson(random, media);
+            if (quantidade == 0) {
+                return 0;
+            }
+
+            linha.setLength(0);
+            linha.append(prefixo);
+            campo(linha, cargo).append(';');
+            campo(linha, cargo == CARGO_PREFEITO ? "PREFEITO" : "VEREADOR").append(';');
+            campo(linha, numVotavel).append(';');
+            campo(linha, nomeVotavel(numVotavel)).append(';');
+            campo(linha, quantidade).append(';');
+            campo(linha, 1000 + numVotavel % 7).append('\n');
+            saida.append(linha);
+            return 1;
+        }
+
+        private void embaralha(double[] valores) {
+            for (int i = valores.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                double troca = valores[i];
+                valores[i] = valores[j];
+                valores[j] = troca;
+            }
+        }
+    }
+
+    private double[] pesosZipf(int n) {
+        double[] pesos = new double[n];
+        for (int i = 0; i < n; i++) {
+            pesos[i] = 1 / Math.pow(i + 1, assimetria);
+        }
+        return pesos;
+    }
+
+    /**
+     * Sorteia um valor de uma distribuição de Poisson com a média informada; para médias
+     * altas, usa a aproximação normal.
+     */
+    private static int sorteiaPoisson(SplittableRandom random, double media) {
+        if (media <= 0) {
+            return 0;
+        }
+        if (media > 30) {
+            double u1 = 1 - random.nextDouble();
+            double normal = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * random.nextDouble());
+            return (int) Math.max(0, Math.round(media + Math.sqrt(media) * normal));
+        }
+
+        double limite = Math.exp(-media);
+        double produto = random.nextDouble();
+        int k = 0;
+        while (produto > limite) {
+            produto *= random.nextDouble();
+            k++;
+        }
+        return k;
+    }
+
+    private static int federacao(int numeroPartido) {
+        // Alguns partidos formam federações, como nos dados reais.
+        switch (numeroPartido) {
+            case 13: case 65: case 43:
+                return 1;
+            case 45: case 23:
+                return 2;
+            default:
+                return -1;
+        }
+    }
+
+    private static String nomeVotavel(int numVotavel) {
+        if (numVotavel == 95) return "VOTO BRANCO";
+        if (numVotavel == 96) return "VOTO NULO";
+        if (numVotavel < 100) return "LEGENDA " + numVotavel;
+        return "CANDIDATO " + numVotavel;
+    }
+
+    private static String descricaoSituacao(int situacao) {
+        switch (situacao) {
+            case 1: return "ELEITO";
+            case 2: return "ELEITO POR QP";
+            case 3: return "ELEITO POR MÉDIA";
+            case 4: return "NÃO ELEITO";
+            case 5: return "SUPLENTE";
+            default: return "#NULO#";
+        }
+    }
+
+    private static int[] ordemDecrescente(double[] pesos) {
+        return java.util.stream.IntStream.range(0, pesos.length).boxed()
+            .sorted((a, b) -> Double.compare(pesos[b], pesos[a]))
+            .mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double soma(double[] valores) {
+        double soma = 0;
+        for (double valor : valores) {
+            soma += valor;
+        }
+        return soma;
+    }
+
+    private static StringBuilder campo(StringBuilder linha, String valor) {
+        return linha.append('"').append(valor).append('"');
+    }
+
+    private static StringBuilder campo(StringBuilder linha, int valor) {
+        return linha.append('"').append(valor).append('"');
+    }
+
+    private static String cabecalho(String... colunas) {
+        StringBuilder linha = new StringBuilder();
+        for (String coluna : colunas) {
+            if (linha.length() > 0) {
+                linha.append(';');
+            }
+            campo(linha, coluna);
+        }
+        return linha.append('\n').toString();
+    }
+
+    private static Writer abre(Path arquivo) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(arquivo), StandardCharsets.ISO_8859_1),
+            1 << 20);
+    }
+
+    private static int verificaPositivo(int valor, String descricao) {
+        if (valor < 1) {
+            throw new IllegalArgumentException("Número de " + descricao + " deve ser positivo");
+        }
+        return valor;
+    }
+
+    public static void main(String[] args) throws IOException {
+        GeradorDados gerador = new GeradorDados();
+        Path saida = null;
+
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (!arg.startsWith("--") || igual < 0) {
+                System.err.println("Argumento inválido: " + arg);
+                System.exit(1);
+            }
+            String nome = arg.substring(2, igual);
+            String valor = arg.substring(igual + 1);
+            switch (nome) {
+                case "saida": saida = Paths.get(valor); break;
+                case "municipios": gerador.setNumMunicipios(Integer.parseInt(valor)); break;
+                case "partidos": gerador.setNumPartidos(Integer.parseInt(valor)); break;
+                case "candidatos-por-partido": gerador.setCandidatosPorPartido(Integer.parseInt(valor)); break;
+                case "secoes": gerador.setNumSecoes(Integer.parseInt(valor)); break;
+                case "eleitores-por-secao": gerador.setEleitoresPorSecao(Integer.parseInt(valor)); break;
+                case "assimetria": gerador.setAssimetria(Double.parseDouble(valor)); break;
+                case "semente": gerador.setSemente(Long.parseLong(valor)); break;
+                default:
+                    System.err.println("Argumento desconhecido: " + nome);
+                    System.exit(1);
+            }
+        }
+
+        if (saida == null) {
+            System.err.println("Uso: java benchmark.GeradorDados --saida=<diretório> [--municipios=N] [--partidos=N]"
+                + " [--candidatos-por-partido=N] [--secoes=N] [--eleitores-por-secao=N] [--assimetria=X]"
+                + " [--semente=N]");
+            System.exit(1);
+        }
+
+        long inicio = System.nanoTime();
+        long numLinhas = gerador.gera(saida);
+        System.out.printf("%d linhas de votos geradas em %s (%.1f s)%n",
+            numLinhas, saida, (System.nanoTime() - inicio) / 1e9);
+    }
+}
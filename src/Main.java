@@ -1,54 +1,129 @@
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Set;
 
-import domain.Candidato;
 import domain.Eleicao;
-import domain.Voto;
-import io.CandidatoReader;
-import io.VotoReader;
+import domain.ResultadoSimulacao;
+import domain.ResultadoVagas;
+import io.AcumuladorVotos;
 import report.Relatorio;
+import report.RelatorioVagas;
+import services.ApuracaoMunicipios;
+import services.DistribuicaoVagas;
+import services.PipelineApuracao;
+import services.SimulacaoVagas;
 import services.VotacaoService;
+import util.Metricas;
 
 /**
  * Classe principal que inicia a aplicação e orquestra a execução da eleição.
  */
 public class Main {
+    private static final String TODOS_MUNICIPIOS = "TODOS";
+    private static final String OPCAO_VAGAS = "--vagas=";
+    private static final String OPCAO_SIMULACOES = "--simulacoes=";
+    private static final String USO = "Uso: java App <código_municipio|TODOS> <candidatos.csv> <votos.csv>"
+        + " <data_da_eleição> [--vagas=N [--simulacoes=M]]";
     
     /**
      * Método principal que recebe os argumentos, lê os arquivos CSV e imprime os relatórios.
+     * Com o código de município TODOS, todos os municípios dos arquivos são apurados em uma
+     * única leitura e um relatório é impresso para cada um. Com a opção --vagas=N, em vez
+     * dos relatórios é impressa a distribuição de N vagas calculada pelos quocientes, junto
+     * com as diferenças em relação aos eleitos do arquivo de candidatos; com --simulacoes=M,
+     * são simulados M cenários com pequenas alterações na votação e impressos os candidatos
+     * cujo resultado muda em algum deles, com a frequência com que foram eleitos.
      *
-     * @param args argumentos: <código_municipio> <candidatos.csv> <votos.csv> <data_da_eleição>
+     * @param args argumentos: <código_municipio|TODOS> <candidatos.csv> <votos.csv> <data_da_eleição>
+     *             [--vagas=N [--simulacoes=M]]
      */
     public static void main(String[] args) {
-        if (args.length != 4) {
-            throw new IllegalArgumentException(
-                "Uso: java App <código_municipio> <candidatos.csv> <votos.csv> <data_da_eleição>");
+        if (args.length < 4 || args.length > 6) {
+            throw new IllegalArgumentException(USO);
+        }
+        for (int i = 4; i < args.length; i++) {
+            if (!args[i].startsWith(OPCAO_VAGAS) && !args[i].startsWith(OPCAO_SIMULACOES)) {
+                throw new IllegalArgumentException(USO);
+            }
+        }
+        int numVagas = leOpcao(args, OPCAO_VAGAS);
+        int numCenarios = leOpcao(args, OPCAO_SIMULACOES);
+        if (numCenarios > 0 && numVagas == 0) {
+            throw new IllegalArgumentException("A opção --simulacoes=M exige --vagas=N");
         }
         
         String codigoMunicipio = args[0];
         String candidatosCSV = args[1];
         String votosCSV = args[2];
         LocalDate dataEleicao = LocalDate.parse(args[3], DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        int numThreads = Runtime.getRuntime().availableProcessors();
+
+        // Os arquivos de candidatos e de votos são lidos ao mesmo tempo; os votos ficam
+        // agregados até que os candidatos estejam cadastrados.
+        if (codigoMunicipio.equalsIgnoreCase(TODOS_MUNICIPIOS)) {
+            ApuracaoMunicipios apuracao = new ApuracaoMunicipios();
+            try (PipelineApuracao pipeline = new PipelineApuracao(candidatosCSV, votosCSV, null, numThreads)) {
+                apuracao.carregaCandidatos(pipeline.getCandidatos());
+                apuracao.computaVotos(pipeline.getVotos());
+            }
+            if (numVagas > 0) {
+                apuracao.imprimeDistribuicaoVagas(municipio -> numVagas, numCenarios, Relatorio.saidaPadrao());
+            } else {
+                apuracao.imprimeRelatorios(dataEleicao, Relatorio.saidaPadrao());
+            }
+            Metricas.gravaSeHabilitado();
+            return;
+        }
         
-        Eleicao eleicao = Eleicao.getInstance(codigoMunicipio);
-        Set<Candidato> candidatos = CandidatoReader.readCandidatos(candidatosCSV);
-        Set<Voto> votos = VotoReader.readVotos(votosCSV, eleicao.getCodigoMunicipio());
+        // Os relatórios são da eleição para vereador. A contagem lida também tem os votos de
+        // prefeito, que aqui não são computados; a apuração de prefeito fica disponível pela
+        // API, em ApuracaoMunicipios.getEleicoes(Cargo.PREFEITO).
+        Eleicao eleicao = new Eleicao(codigoMunicipio);
+        AcumuladorVotos contagem;
+        try (PipelineApuracao pipeline = new PipelineApuracao(candidatosCSV, votosCSV, codigoMunicipio, numThreads)) {
+            eleicao.addCandidatos(pipeline.getCandidatos());
+            contagem = pipeline.getVotos();
+        }
 
-        eleicao.addCandidatos(candidatos);
         VotacaoService votacaoService = new VotacaoService(eleicao);
-        votacaoService.computaVotos(votos);
+        Metricas.mede("computa_votos",
+            () -> contagem.emiteLotes(codigoMunicipio, eleicao.getCargo(), votacaoService::computaVotos));
+
+        if (numVagas > 0) {
+            ResultadoVagas vagas = Metricas.mede("distribuicao_vagas",
+                () -> new DistribuicaoVagas(eleicao, numVagas).calcula());
+            RelatorioVagas relatorio = new RelatorioVagas(eleicao, vagas, Relatorio.saidaPadrao());
+            Metricas.mede("relatorio", relatorio::imprimeTodos);
+            if (numCenarios > 0) {
+                ResultadoSimulacao simulacao = Metricas.mede("simulacao",
+                    () -> new SimulacaoVagas(eleicao, numVagas).simula(numCenarios));
+                relatorio.imprimeSimulacao(simulacao);
+            }
+        } else {
+            Metricas.mede("relatorio", () -> new Relatorio(eleicao).imprimeTodos(dataEleicao));
+        }
+        Metricas.gravaSeHabilitado();
+    }
 
-        Relatorio relatorio = new Relatorio(eleicao);
-        relatorio.imprimeNumVagas();
-        relatorio.imprimeVereadoresEleitos();
-        relatorio.imprimeCandidatosMaisVotados();
-        relatorio.imprimeCandidatosNaoEleitos();
-        relatorio.imprimeCandidatosBeneficiados();
-        relatorio.imprimeRankingPartidos();
-        relatorio.imprimePrimeiroUltimoCandidatoPorPartido();
-        relatorio.imprimeDistribuicaoFaixaEtaria(dataEleicao);
-        relatorio.imprimeDistribuicaoGenero();
-        relatorio.imprimeTotalVotos();
+    /**
+     * Lê o valor de uma opção numérica, como --vagas=N, depois dos argumentos obrigatórios.
+     *
+     * @return o valor, sempre positivo, ou 0 se a opção não foi informada
+     */
+    private static int leOpcao(String[] args, String prefixo) {
+        for (int i = 4; i < args.length; i++) {
+            if (!args[i].startsWith(prefixo)) {
+                continue;
+            }
+            try {
+                int valor = Integer.parseInt(args[i].substring(prefixo.length()));
+                if (valor > 0) {
+                    return valor;
+                }
+            } catch (NumberFormatException e) {
+                // Tratado abaixo, junto com valores não positivos.
+            }
+            throw new IllegalArgumentException("Valor inválido: " + args[i]);
+        }
+        return 0;
     }
 }
@@ -5,21 +5,30 @@ import java.time.LocalDate;
 import enums.Cargo;
 import enums.Genero;
 import enums.Situacao;
+import util.Dicionario;
 
 /**
- * Representa um candidato com suas informações pessoais e de votação.
+ * Representa um candidato com suas informações pessoais. A votação do candidato não fica no
+ * objeto: ela é consultada pela {@link VersaoApuracao} publicada pela {@link Eleicao}.
+ * <p>
+ * Para reduzir a memória em arquivos com centenas de milhares de candidatos, o município é
+ * guardado pelo id em {@link Dicionario#MUNICIPIOS}, a data de nascimento como dia epoch e
+ * cargo, situação e gênero pelo ordinal; os getters continuam devolvendo os tipos completos.
  */
-public class Candidato implements Comparable<Candidato> {
-    private String codigoMunicipio;
-    private Cargo cargo;
-    private int numero;
-    private String nomeUrna;
+public class Candidato {
+    private static final Cargo[] CARGOS = Cargo.values();
+    private static final Situacao[] SITUACOES = Situacao.values();
+    private static final Genero[] GENEROS = Genero.values();
+
+    private final int idMunicipio;
+    private final byte cargo;
+    private final byte situacao;
+    private final byte genero;
+    private final int numero;
+    private final String nomeUrna;
     private Partido partido;
-    private int numFederacao;
-    private LocalDate dataNascimento;
-    private Situacao situacao;
-    private Genero genero;
-    private int numVotos;
+    private final int numFederacao;
+    private final int diaNascimento;
 
     public Candidato(
         String codigoMunicipio, 
@@ -32,32 +41,58 @@ public class Candidato implements Comparable<Candidato> {
         Situacao situacao,
         Genero genero
     ) {
-        this.codigoMunicipio = codigoMunicipio;
-        this.cargo = cargo;
-        this.numero = numero;
-        this.nomeUrna = nomeUrna;
-        this.partido = partido;
-        this.numFederacao = numFederacao;
-        this.dataNascimento = dataNascimento;
-        this.situacao = situacao;
-        this.genero = genero;
+        this(
+            Dicionario.MUNICIPIOS.getId(codigoMunicipio), cargo, numero,
+            nomeUrna, partido, numFederacao,
+            (int) dataNascimento.toEpochDay(), situacao, genero
+        );
     }
 
     /**
-     * Incrementa os votos do candidato.
+     * Cria um candidato a partir dos valores já codificados.
      *
-     * @param numVotos quantidade de votos a incrementar
+     * @param idMunicipio id do município em {@link Dicionario#MUNICIPIOS}
+     * @param cargo cargo do candidato, ou null se desconhecido
+     * @param numero número do candidato
+     * @param nomeUrna nome de urna
+     * @param partido partido do candidato
+     * @param numFederacao número da federação
+     * @param diaNascimento data de nascimento em dias desde 01/01/1970
+     * @param situacao situação do candidato
+     * @param genero gênero do candidato
      */
-    public void incrementaVotos(int numVotos) {
-        this.numVotos += numVotos;
+    public Candidato(
+        int idMunicipio, 
+        Cargo cargo, 
+        int numero, 
+        String nomeUrna, 
+        Partido partido,  
+        int numFederacao, 
+        int diaNascimento, 
+        Situacao situacao,
+        Genero genero
+    ) {
+        this.idMunicipio = idMunicipio;
+        this.cargo = (byte) (cargo != null ? cargo.ordinal() : -1);
+        this.numero = numero;
+        this.nomeUrna = nomeUrna;
+        this.partido = partido;
+        this.numFederacao = numFederacao;
+        this.diaNascimento = diaNascimento;
+        this.situacao = (byte) situacao.ordinal();
+        this.genero = (byte) genero.ordinal();
     }
 
     public String getCodigoMunicipio() {
-        return codigoMunicipio;
+        return Dicionario.MUNICIPIOS.getValor(idMunicipio);
+    }
+
+    public int getIdMunicipio() {
+        return idMunicipio;
     }
 
     public Cargo getCargo() {
-        return cargo;
+        return cargo >= 0 ? CARGOS[cargo] : null;
     }
 
     public int getNumero() {
@@ -81,31 +116,23 @@ public class Candidato implements Comparable<Candidato> {
     }
 
     public LocalDate getDataNascimento() {
-        return dataNascimento;
+        return LocalDate.ofEpochDay(diaNascimento);
     }
 
-    public Situacao getSituacao() {
-        return situacao;
-    }
-
-    public Genero getGenero() {
-        return genero;
-    }
-
-    public int getNumVotos() {
-        return numVotos;
+    /**
+     * Retorna a data de nascimento sem criar um LocalDate.
+     *
+     * @return dias desde 01/01/1970
+     */
+    public int getDiaNascimento() {
+        return diaNascimento;
     }
 
-    public void setNumVotos(int numVotos) {
-        this.numVotos = numVotos;
+    public Situacao getSituacao() {
+        return SITUACOES[situacao];
     }
 
-    @Override
-    public int compareTo(Candidato o) {
-        int diff = Integer.compare(o.numVotos, numVotos);
-        if (diff == 0) {
-            diff = dataNascimento.compareTo(o.dataNascimento);
-        }
-        return diff;
+    public Genero getGenero() {
+        return GENEROS[genero];
     }
 }
@@ -2,41 +2,88 @@ package domain;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import enums.Cargo;
 import enums.Genero;
 import enums.Situacao;
+import util.Dicionario;
+import util.IntIntMap;
+import util.LongObjectMap;
 
 /**
- * Representa uma eleição, gerenciando candidatos, partidos e contagem de votos.
+ * Representa a eleição de um cargo em um município, gerenciando candidatos, partidos e contagem
+ * de votos. Cada instância é independente, de modo que várias eleições, de municípios ou cargos
+ * diferentes, podem ser computadas na mesma execução.
+ * <p>
+ * Candidatos e partidos recebem índices densos, na ordem em que são cadastrados. Os votos são
+ * aplicados em incrementos ({@link #aplica(IncrementoVotos)}), e cada incremento publica uma
+ * nova {@link VersaoApuracao} imutável: consultas e relatórios leem a versão publicada e veem
+ * totais coerentes mesmo enquanto outras threads continuam computando votos.
  */
 public class Eleicao {
-    private static final Eleicao INSTANCE = new Eleicao(); // Instância única para o padrão Singleton.
-    private static Map<String, Candidato> candidatos = new HashMap<>();
-    private static Map<Integer, Partido> partidos = new HashMap<>();
-    private static String codigoMunicipio;
+    // Candidatos indexados pelo id do município no dicionário e pelo número, em uma única chave long.
+    private LongObjectMap<Candidato> candidatos = new LongObjectMap<>();
+    // Índices densos dos candidatos, na ordem de cadastro, e o índice (mais um) de cada número.
+    private final List<Candidato> candidatosPorIndice = new ArrayList<>();
+    private final IntIntMap indicePorNumero = new IntIntMap();
+    private int[] partidoDoCandidato = new int[64];
+    // Partidos indexados diretamente pelo número, que tem dois dígitos.
+    private Partido[] partidosPorNumero = new Partido[100];
+    private int[] indicesPartidos = new int[100];
+    private List<Partido> partidos = new ArrayList<>();
+    private final String codigoMunicipio;
+    private final int idMunicipio;
+    private final Cargo cargo;
     private int numVagas;
+    // Última versão publicada da votação, com os rankings da apuração incremental; substituída,
+    // nunca alterada, a cada incremento.
+    private volatile Publicacao publicada = new Publicacao(VersaoApuracao.VAZIA, null, null);
+    private final Object lockVersao = new Object();
 
     /**
-     * Construtor privado para implementar o padrão Singleton.
+     * Versão da votação publicada e, na apuração incremental, os rankings ordenados por ela.
+     * Ficam em um único objeto para que uma consulta nunca combine os rankings de uma versão
+     * com os totais de outra.
      */
-    private Eleicao() {}
+    private static final class Publicacao {
+        final VersaoApuracao versao;
+        // Nulos enquanto a apuração incremental não é iniciada.
+        final RankingCandidatos maisVotados;
+        final RankingCandidatos eleitos;
+
+        Publicacao(VersaoApuracao versao, RankingCandidatos maisVotados, RankingCandidatos eleitos) {
+            this.versao = versao;
+            this.maisVotados = maisVotados;
+            this.eleitos = eleitos;
+        }
+    }
+
+    /**
+     * Cria a eleição para vereador do município informado.
+     *
+     * @param codigoMunicipio código do município
+     */
+    public Eleicao(String codigoMunicipio) {
+        this(codigoMunicipio, Cargo.VEREADOR);
+    }
 
     /**
-     * Retorna a instância da eleição para o município informado.
+     * Cria a eleição de um cargo no município informado.
      *
      * @param codigoMunicipio código do município
-     * @return instância única de Eleicao
+     * @param cargo cargo em disputa
      */
-    public static Eleicao getInstance(String codigoMunicipio) {
-        Eleicao.codigoMunicipio = codigoMunicipio;
-        return INSTANCE;
+    public Eleicao(String codigoMunicipio, Cargo cargo) {
+        this.codigoMunicipio = codigoMunicipio;
+        this.idMunicipio = Dicionario.MUNICIPIOS.getId(codigoMunicipio);
+        this.cargo = cargo;
     }
 
     /**
@@ -87,17 +134,135 @@ public class Eleicao {
             return;
         }
         
-        String candidatoKey = candidato.getCodigoMunicipio() + candidato.getNumero();
-        candidatos.put(candidatoKey, candidato);
+        candidatos.put(chaveCandidato(candidato.getIdMunicipio(), candidato.getNumero()), candidato);
         
         Partido partido = findPartido(candidato.getPartido().getNumero());
         partido.addCandidato(candidato);
         candidato.setPartido(partido);  // Partidos são únicos e não devem haver cópias do mesmo partido
 
+        int indice = indicePorNumero.get(candidato.getNumero()) - 1;
+        Candidato substituido = null;
+        if (indice < 0) {
+            indice = candidatosPorIndice.size();
+            candidatosPorIndice.add(candidato);
+            indicePorNumero.adiciona(candidato.getNumero(), indice + 1);
+        } else {
+            substituido = candidatosPorIndice.set(indice, candidato);
+        }
+        if (indice >= partidoDoCandidato.length) {
+            partidoDoCandidato = Arrays.copyOf(partidoDoCandidato, partidoDoCandidato.length * 2);
+        }
+        partidoDoCandidato[indice] = indicesPartidos[partido.getNumero()];
+
         if (isEleito(candidato)) {
             partido.addCandidatoEleito(candidato);
             numVagas++;
         }
+
+        synchronized (lockVersao) {
+            Publicacao atual = publicada;
+            if (atual.maisVotados != null) {
+                List<Candidato> saem = substituido != null ? List.of(substituido) : List.of();
+                Comparator<Candidato> ordem = ordem(atual.versao);
+                publicada = new Publicacao(atual.versao,
+                    atual.maisVotados.com(saem, List.of(candidato), ordem),
+                    atual.eleitos.com(saem, isEleito(candidato) ? List.of(candidato) : List.of(), ordem));
+            }
+        }
+    }
+
+    /**
+     * Inicia a apuração incremental: a partir daqui, os rankings de mais votados e de eleitos
+     * são reconstruídos a cada incremento aplicado e publicados junto com a nova versão, e as
+     * consultas a eles não reordenam os candidatos. Chamadas repetidas não têm efeito.
+     */
+    public void iniciaApuracaoIncremental() {
+        synchronized (lockVersao) {
+            Publicacao atual = publicada;
+            if (atual.maisVotados != null) {
+                return;
+            }
+            List<Candidato> eleitos = new ArrayList<>(numVagas);
+            for (Candidato candidato : candidatosPorIndice) {
+                if (isEleito(candidato)) {
+                    eleitos.add(candidato);
+                }
+            }
+            Comparator<Candidato> ordem = ordem(atual.versao);
+            publicada = new Publicacao(atual.versao,
+                RankingCandidatos.de(candidatosPorIndice, ordem), RankingCandidatos.de(eleitos, ordem));
+        }
+    }
+
+    /**
+     * Indica se a apuração incremental foi iniciada.
+     *
+     * @return true se os rankings são mantidos a cada incremento
+     */
+    public boolean isApuracaoIncremental() {
+        return publicada.maisVotados != null;
+    }
+
+    /**
+     * Cria um incremento vazio, do tamanho da eleição, para acumular votos sem locks antes de
+     * aplicá-los com {@link #aplica(IncrementoVotos)}.
+     *
+     * @return o incremento
+     */
+    public IncrementoVotos novoIncremento() {
+        return new IncrementoVotos(candidatosPorIndice.size(), partidos.size());
+    }
+
+    /**
+     * Aplica um incremento de votos aos candidatos e partidos e publica uma nova versão da
+     * votação. Apenas a troca da versão é feita sob lock, uma vez por incremento; o acúmulo dos
+     * votos no incremento não sincroniza com as outras threads.
+     * <p>
+     * Na apuração incremental, os rankings da nova versão são construídos no mesmo passo, a
+     * partir dela, e publicados junto com ela: apenas os candidatos do incremento são
+     * reordenados, e o restante do ranking anterior é aproveitado.
+     *
+     * @param incremento votos acumulados desde o último incremento
+     */
+    public void aplica(IncrementoVotos incremento) {
+        if (incremento.isVazio()) {
+            return;
+        }
+
+        synchronized (lockVersao) {
+            Publicacao atual = publicada;
+            VersaoApuracao nova = atual.versao.com(incremento, partidoDoCandidato);
+            if (atual.maisVotados == null) {
+                publicada = new Publicacao(nova, null, null);
+                return;
+            }
+
+            List<Candidato> alterados = new ArrayList<>();
+            List<Candidato> eleitosAlterados = new ArrayList<>();
+            for (int i = 0; i < incremento.getNumCandidatos(); i++) {
+                if (incremento.getVotosCandidato(i) != 0) {
+                    Candidato candidato = candidatosPorIndice.get(i);
+                    alterados.add(candidato);
+                    if (isEleito(candidato)) {
+                        eleitosAlterados.add(candidato);
+                    }
+                }
+            }
+            Comparator<Candidato> ordem = ordem(nova);
+            publicada = new Publicacao(nova,
+                atual.maisVotados.com(alterados, alterados, ordem),
+                atual.eleitos.com(eleitosAlterados, eleitosAlterados, ordem));
+        }
+    }
+
+    /**
+     * Retorna a última versão publicada da votação, sem locks. A versão não muda depois de
+     * publicada, então várias consultas sobre ela são coerentes entre si.
+     *
+     * @return a versão atual
+     */
+    public VersaoApuracao getVersao() {
+        return publicada.versao;
     }
 
     /**
@@ -117,9 +282,23 @@ public class Eleicao {
      * @param partido Partido a ser adicionado
      */
     public void addPartido(Partido partido) {
-        boolean partidoJaExiste = partidos.containsKey(partido.getNumero());
+        int numero = partido.getNumero();
+        if (numero < 0) {
+            throw new IllegalArgumentException("Número de partido inválido: " + numero);
+        }
+        if (numero >= partidosPorNumero.length) {
+            partidosPorNumero = Arrays.copyOf(partidosPorNumero, Math.max(numero + 1, partidosPorNumero.length * 2));
+        }
+
+        if (numero >= indicesPartidos.length) {
+            indicesPartidos = Arrays.copyOf(indicesPartidos, partidosPorNumero.length);
+        }
+
+        boolean partidoJaExiste = partidosPorNumero[numero] != null;
         if (!partidoJaExiste) {
-            partidos.put(partido.getNumero(), partido);
+            partidosPorNumero[numero] = partido;
+            indicesPartidos[numero] = partidos.size();
+            partidos.add(partido);
         }
     }
 
@@ -131,7 +310,62 @@ public class Eleicao {
      * @return Candidato correspondente ou null se não encontrado
      */
     public Candidato findCandidato(String codigoMunicipio, int numero) {
-        return candidatos.get(codigoMunicipio + numero);
+        int idMunicipio = Dicionario.MUNICIPIOS.findId(codigoMunicipio);
+        if (idMunicipio < 0) {
+            return null;
+        }
+        return findCandidato(idMunicipio, numero);
+    }
+
+    /**
+     * Encontra um candidato pelo id do município no dicionário de municípios e pelo número,
+     * sem nenhuma alocação.
+     *
+     * @param idMunicipio id do município em {@link Dicionario#MUNICIPIOS}
+     * @param numero número do candidato
+     * @return Candidato correspondente ou null se não encontrado
+     */
+    public Candidato findCandidato(int idMunicipio, int numero) {
+        return candidatos.get(chaveCandidato(idMunicipio, numero));
+    }
+
+    /**
+     * Retorna o índice denso de um candidato da eleição.
+     *
+     * @param idMunicipio id do município em {@link Dicionario#MUNICIPIOS}
+     * @param numero número do candidato
+     * @return o índice ou -1 se o candidato não for da eleição
+     */
+    public int findIndiceCandidato(int idMunicipio, int numero) {
+        if (idMunicipio != this.idMunicipio) {
+            return -1;
+        }
+        return indicePorNumero.get(numero) - 1;
+    }
+
+    /**
+     * Retorna o índice denso de um candidato da eleição.
+     *
+     * @param candidato candidato cadastrado
+     * @return o índice ou -1 se o candidato não for da eleição
+     */
+    public int getIndice(Candidato candidato) {
+        int indice = findIndiceCandidato(candidato.getIdMunicipio(), candidato.getNumero());
+        return indice >= 0 && candidatosPorIndice.get(indice) == candidato ? indice : -1;
+    }
+
+    /**
+     * Retorna o candidato com o índice denso informado.
+     *
+     * @param indice índice do candidato, entre 0 e {@link #getNumCandidatos()} - 1
+     * @return o candidato
+     */
+    public Candidato getCandidato(int indice) {
+        return candidatosPorIndice.get(indice);
+    }
+
+    private static long chaveCandidato(int idMunicipio, int numero) {
+        return (long) idMunicipio << 32 | (numero & 0xFFFFFFFFL);
     }
 
     /**
@@ -141,15 +375,36 @@ public class Eleicao {
      * @return Partido correspondente ou null se não encontrado
      */
     public Partido findPartido(int numero) {
-        return partidos.get(numero);
+        if (numero < 0 || numero >= partidosPorNumero.length) {
+            return null;
+        }
+        return partidosPorNumero[numero];
     }
 
     /**
-     * Retorna a lista de candidatos eleitos, ordenados.
+     * Retorna o índice denso de um partido, que é a sua posição em {@link #getPartidos()}.
+     *
+     * @param numero número do partido
+     * @return o índice ou -1 se o partido não estiver cadastrado
+     */
+    public int findIndicePartido(int numero) {
+        if (findPartido(numero) == null) {
+            return -1;
+        }
+        return indicesPartidos[numero];
+    }
+
+    /**
+     * Retorna a lista de candidatos eleitos, ordenados pela votação na versão publicada.
      *
      * @return Lista de candidatos eleitos
      */
     public List<Candidato> getCandidatosEleitos() {
+        Publicacao atual = publicada;
+        if (atual.eleitos != null) {
+            return atual.eleitos.getTodos();
+        }
+
         List<Candidato> eleitos = new ArrayList<>(numVagas);
 
         for (Candidato candidato : candidatos.values()) {
@@ -158,16 +413,21 @@ public class Eleicao {
             }
         }
         
-        Collections.sort(eleitos);
+        eleitos.sort(ordem(atual.versao));
         return eleitos;
     }
 
     /**
-     * Retorna a lista de candidatos mais votados, ordenados.
+     * Retorna a lista de candidatos mais votados, ordenados pela votação na versão publicada.
      *
      * @return Lista de candidatos mais votados
      */
     public List<Candidato> getCandidatosMaisVotados() {
+        Publicacao atual = publicada;
+        if (atual.maisVotados != null) {
+            return atual.maisVotados.getTodos();
+        }
+
         List<Candidato> maisVotados = new ArrayList<>(numVagas);
 
         for (Candidato candidato : candidatos.values()) {
@@ -176,10 +436,100 @@ public class Eleicao {
             }
         }
 
-        Collections.sort(maisVotados);
+        maisVotados.sort(ordem(atual.versao));
         return maisVotados;
     }
 
+    /**
+     * Retorna os k candidatos mais votados, na mesma ordem de {@link #getCandidatosMaisVotados()}.
+     * Na apuração incremental, a consulta percorre apenas o início do ranking já ordenado;
+     * fora dela, os k primeiros são selecionados com um heap limitado a k candidatos, em
+     * O(n log k), sem ordenar todos os candidatos.
+     *
+     * @param k quantidade de candidatos
+     * @return lista com até k candidatos, em ordem decrescente de votação
+     */
+    public List<Candidato> getCandidatosMaisVotados(int k) {
+        Publicacao atual = publicada;
+        if (atual.maisVotados != null) {
+            return atual.maisVotados.getPrimeiros(k);
+        }
+
+        return selecionaPrimeiros(k, candidato -> candidato.getSituacao() != Situacao.INVALIDO, atual.versao);
+    }
+
+    /**
+     * Retorna os k primeiros candidatos eleitos, na mesma ordem de {@link #getCandidatosEleitos()}.
+     *
+     * @param k quantidade de candidatos
+     * @return lista com até k eleitos, em ordem decrescente de votação
+     */
+    public List<Candidato> getCandidatosEleitos(int k) {
+        Publicacao atual = publicada;
+        if (atual.eleitos != null) {
+            return atual.eleitos.getPrimeiros(k);
+        }
+
+        return selecionaPrimeiros(k, this::isEleito, atual.versao);
+    }
+
+    /**
+     * Seleciona os k primeiros candidatos que atendem ao filtro mantendo um heap com os k
+     * melhores vistos até o momento, cujo topo é o pior deles.
+     *
+     * @param k quantidade de candidatos
+     * @param filtro condição para o candidato entrar na seleção
+     * @param versao versão da votação
+     * @return lista com até k candidatos, em ordem
+     */
+    private List<Candidato> selecionaPrimeiros(int k, Predicate<Candidato> filtro, VersaoApuracao versao) {
+        if (k <= 0) {
+            return new ArrayList<>();
+        }
+
+        Comparator<Candidato> ordem = ordem(versao);
+        PriorityQueue<Candidato> heap = new PriorityQueue<>(k, ordem.reversed());
+        for (Candidato candidato : candidatos.values()) {
+            if (!filtro.test(candidato)) {
+                continue;
+            }
+            if (heap.size() < k) {
+                heap.add(candidato);
+            } else if (ordem.compare(candidato, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidato);
+            }
+        }
+
+        List<Candidato> primeiros = new ArrayList<>(heap);
+        primeiros.sort(ordem);
+        return primeiros;
+    }
+
+    /**
+     * Ordem da votação: mais votos primeiro, desempatados pela data de nascimento (o mais velho
+     * primeiro), pelo número e pelo município. Os votos são lidos de uma única versão, para que a
+     * ordenação não mude no meio de uma consulta feita durante a apuração.
+     *
+     * @param versao versão da votação
+     * @return comparador dos candidatos
+     */
+    Comparator<Candidato> ordem(VersaoApuracao versao) {
+        return Comparator.comparingInt((Candidato candidato) -> -versao.getVotosCandidato(getIndice(candidato)))
+            .thenComparingInt(Candidato::getDiaNascimento)
+            .thenComparingInt(Candidato::getNumero)
+            .thenComparing(Candidato::getCodigoMunicipio);
+    }
+
+    /**
+     * Calcula o resultado da eleição com a votação atual, para consumo pelos relatórios.
+     *
+     * @return o resultado da eleição
+     */
+    public ResultadoEleicao getResultado() {
+        return ResultadoEleicao.de(this);
+    }
+
     /**
      * Verifica se o candidato é válido para a eleição.
      *
@@ -187,18 +537,22 @@ public class Eleicao {
      * @return true se o candidato é válido, false caso contrário
      */
     public boolean isValido(Candidato candidato) {
-        return candidato.getCargo() == Cargo.VEREADOR && 
+        return candidato.getCargo() == cargo && 
             candidato.getSituacao() != Situacao.INVALIDO &&
-            candidato.getCodigoMunicipio().equals(codigoMunicipio);
+            candidato.getIdMunicipio() == idMunicipio;
     }
 
     /**
-     * Verifica se o candidato foi eleito.
+     * Verifica se o candidato foi eleito. Nos cargos majoritários, o eleito tem a situação
+     * ELEITO; nos proporcionais, ELEITO_POR_QP ou ELEITO_POR_MEDIA.
      *
      * @param candidato candidato a ser verificado
      * @return true se eleito, false caso contrário
      */
     public boolean isEleito(Candidato candidato) {
+        if (!cargo.isProporcional()) {
+            return candidato.getSituacao() == Situacao.ELEITO;
+        }
         return candidato.getSituacao() == Situacao.ELEITO_POR_MEDIA ||
             // candidato.getSituacao() == Situacao.ELEITO ||  // Essa situação não é considerada
             candidato.getSituacao() == Situacao.ELEITO_POR_QP;
@@ -219,7 +573,7 @@ public class Eleicao {
      * @return lista de partidos
      */
     public List<Partido> getPartidos() {
-        return new ArrayList<>(partidos.values());
+        return new ArrayList<>(partidos);
     }
 
     /**
@@ -231,6 +585,15 @@ public class Eleicao {
         return codigoMunicipio;
     }
 
+    /**
+     * Retorna o cargo em disputa na eleição.
+     *
+     * @return cargo da eleição
+     */
+    public Cargo getCargo() {
+        return cargo;
+    }
+
     /**
      * Retorna o número total de candidatos cadastrados.
      *
@@ -245,41 +608,29 @@ public class Eleicao {
     }
 
     /**
-     * Retorna o total de votos (soma dos votos de todos os partidos).
+     * Retorna o total de votos (soma dos votos de todos os partidos) na versão publicada.
      *
      * @return total de votos
      */
     public int getTotalVotos() {
-        int totalVotos = 0;
-        for (Partido partido : partidos.values()) {
-            totalVotos += partido.getNumVotosTotais();
-        }
-        return totalVotos;
+        return publicada.versao.getTotalVotos();
     }
 
     /**
-     * Retorna o total de votos nominais.
+     * Retorna o total de votos nominais na versão publicada.
      *
      * @return total de votos nominais
      */
     public int getTotalVotosNominais() {
-        int totalVotosNominais = 0;
-        for (Partido partido : partidos.values()) {
-            totalVotosNominais += partido.getNumVotosNominais();
-        }
-        return totalVotosNominais;
+        return publicada.versao.getTotalVotosNominais();
     }
 
     /**
-     * Retorna o total de votos na legenda.
+     * Retorna o total de votos na legenda na versão publicada.
      *
      * @return total de votos na legenda
      */
     public int getTotalVotosLegenda() {
-        int totalVotosLegenda = 0;
-        for (Partido partido : partidos.values()) {
-            totalVotosLegenda += partido.getNumVotosLegenda();
-        }
-        return totalVotosLegenda;
+        return publicada.versao.getTotalVotosLegenda();
     }
 }
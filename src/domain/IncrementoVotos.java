@@ -0,0 +1,73 @@
+package domain;
+
+import java.util.Arrays;
+
+/**
+ * Votos acumulados por um escritor antes de serem aplicados à eleição, indexados pelos índices
+ * densos de candidatos e partidos da {@link Eleicao}. O acúmulo não usa locks, pois cada
+ * incremento pertence a uma única thread; a eleição só é tocada em {@link Eleicao#aplica}.
+ */
+public class IncrementoVotos {
+    private int[] votosCandidatos;
+    private int[] votosLegenda;
+    private boolean vazio = true;
+
+    /**
+     * Cria um incremento vazio.
+     *
+     * @param numCandidatos número de candidatos da eleição
+     * @param numPartidos número de partidos da eleição
+     */
+    public IncrementoVotos(int numCandidatos, int numPartidos) {
+        votosCandidatos = new int[numCandidatos];
+        votosLegenda = new int[numPartidos];
+    }
+
+    /**
+     * Soma votos nominais a um candidato.
+     *
+     * @param candidato índice do candidato na eleição
+     * @param quantidade quantidade de votos
+     */
+    public void adicionaNominais(int candidato, int quantidade) {
+        if (candidato >= votosCandidatos.length) {
+            votosCandidatos = Arrays.copyOf(votosCandidatos, Math.max(candidato + 1, votosCandidatos.length * 2));
+        }
+        votosCandidatos[candidato] += quantidade;
+        vazio = false;
+    }
+
+    /**
+     * Soma votos de legenda a um partido.
+     *
+     * @param partido índice do partido na eleição
+     * @param quantidade quantidade de votos
+     */
+    public void adicionaLegenda(int partido, int quantidade) {
+        if (partido >= votosLegenda.length) {
+            votosLegenda = Arrays.copyOf(votosLegenda, Math.max(partido + 1, votosLegenda.length * 2));
+        }
+        votosLegenda[partido] += quantidade;
+        vazio = false;
+    }
+
+    public boolean isVazio() {
+        return vazio;
+    }
+
+    int getNumCandidatos() {
+        return votosCandidatos.length;
+    }
+
+    int getNumPartidos() {
+        return votosLegenda.length;
+    }
+
+    int getVotosCandidato(int candidato) {
+        return votosCandidatos[candidato];
+    }
+
+    int getVotosLegenda(int partido) {
+        return votosLegenda[partido];
+    }
+}
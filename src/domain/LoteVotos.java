@@ -0,0 +1,114 @@
+package domain;
+
+import java.util.Arrays;
+
+import enums.Cargo;
+
+/**
+ * Lote de votos armazenado em colunas: cada voto ocupa uma posição em vetores paralelos
+ * de inteiros, em vez de um objeto {@link Voto} por linha. O município é guardado pelo
+ * id em {@link util.Dicionario#MUNICIPIOS} e o cargo pelo seu código.
+ * <p>
+ * Os leitores preenchem o lote e o repassam ao consumidor quando ele enche; o mesmo lote é
+ * então limpo e reaproveitado, portanto o consumidor não deve guardar referência a ele.
+ */
+public class LoteVotos {
+    public static final int CAPACIDADE_PADRAO = 4096;
+
+    private int[] idsMunicipio;
+    private short[] cargos;
+    private int[] numVotaveis;
+    private int[] quantidades;
+    private int tamanho;
+
+    public LoteVotos() {
+        this(CAPACIDADE_PADRAO);
+    }
+
+    public LoteVotos(int capacidade) {
+        idsMunicipio = new int[capacidade];
+        cargos = new short[capacidade];
+        numVotaveis = new int[capacidade];
+        quantidades = new int[capacidade];
+    }
+
+    /**
+     * Adiciona um voto ao lote, aumentando a capacidade se necessário.
+     *
+     * @param idMunicipio id do município em {@link util.Dicionario#MUNICIPIOS}
+     * @param codigoCargo código do cargo
+     * @param numVotavel número votável
+     * @param quantidade quantidade de votos
+     */
+    public void adiciona(int idMunicipio, int codigoCargo, int numVotavel, int quantidade) {
+        if (tamanho == numVotaveis.length) {
+            int capacidade = Math.max(16, tamanho * 2);
+            idsMunicipio = Arrays.copyOf(idsMunicipio, capacidade);
+            cargos = Arrays.copyOf(cargos, capacidade);
+            numVotaveis = Arrays.copyOf(numVotaveis, capacidade);
+            quantidades = Arrays.copyOf(quantidades, capacidade);
+        }
+        idsMunicipio[tamanho] = idMunicipio;
+        cargos[tamanho] = (short) codigoCargo;
+        numVotaveis[tamanho] = numVotavel;
+        quantidades[tamanho] = quantidade;
+        tamanho++;
+    }
+
+    /**
+     * Indica se o lote atingiu a capacidade com que foi criado.
+     *
+     * @return true se o lote está cheio
+     */
+    public boolean isCheio() {
+        return tamanho >= numVotaveis.length;
+    }
+
+    /**
+     * Remove todos os votos do lote, mantendo os vetores alocados.
+     */
+    public void limpa() {
+        tamanho = 0;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public int getIdMunicipio(int i) {
+        return idsMunicipio[i];
+    }
+
+    public int getCodigoCargo(int i) {
+        return cargos[i];
+    }
+
+    public int getNumVotavel(int i) {
+        return numVotaveis[i];
+    }
+
+    public int getQuantidade(int i) {
+        return quantidades[i];
+    }
+
+    /**
+     * Indica se o voto na posição informada é do tipo nominal, como em {@link Voto#isNominal()}.
+     *
+     * @param i posição do voto no lote
+     * @return true se o voto é nominal; false caso contrário
+     */
+    public boolean isNominal(int i) {
+        Cargo cargo = Cargo.valueOfCodigo(cargos[i]);
+        return cargo != null ? cargo.isVotoNominal(numVotaveis[i]) : numVotaveis[i] > 99;
+    }
+
+    /**
+     * Retorna o cargo do voto na posição informada.
+     *
+     * @param i posição do voto no lote
+     * @return o cargo correspondente ou null se o código não for conhecido
+     */
+    public Cargo getCargo(int i) {
+        return Cargo.valueOfCodigo(cargos[i]);
+    }
+}
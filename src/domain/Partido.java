@@ -1,16 +1,17 @@
 package domain;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
- * Representa um partido político, armazenando votos e informações dos candidatos.
+ * Representa um partido político e os seus candidatos. A votação do partido é consultada
+ * pela {@link VersaoApuracao} publicada pela {@link Eleicao}, e os candidatos em ordem de
+ * votação, pelo {@link ResultadoPartido} do resultado da eleição.
  */
-public class Partido implements Comparable<Partido> {
+public class Partido {
     private int numero;
     private String sigla;
-    private int numVotosNominais;
-    private int numVotosLegenda;
     private List<Candidato> candidatos = new ArrayList<Candidato>();
     private List<Candidato> candidatosEleitos = new ArrayList<Candidato>();
 
@@ -19,32 +20,6 @@ public class Partido implements Comparable<Partido> {
         this.sigla = sigla;
     }
 
-    /**
-     * Incrementa os votos nominais do partido.
-     *
-     * @param numVotos quantidade de votos a incrementar
-     * @throws IllegalArgumentException se numVotos for negativo
-     */
-    public void incrementaVotosNominais(int numVotos) {
-        if (numVotos < 0) {
-            throw new IllegalArgumentException("Número de votos nominais não pode ser negativo");
-        }
-        numVotosNominais += numVotos;
-    }
-
-    /**
-     * Incrementa os votos de legenda do partido.
-     *
-     * @param numVotos quantidade de votos a incrementar
-     * @throws IllegalArgumentException se numVotos for negativo
-     */
-    public void incrementaVotosLegenda(int numVotos) {
-        if (numVotos < 0) {
-            throw new IllegalArgumentException("Número de votos de legenda não pode ser negativo");
-        }
-        numVotosLegenda += numVotos;
-    }
-
     /**
      * Adiciona um candidato ao partido.
      *
@@ -71,32 +46,22 @@ public class Partido implements Comparable<Partido> {
         return sigla;
     }
 
-    public int getNumVotosNominais() {
-        return numVotosNominais;
-    }
-
-    public int getNumVotosLegenda() {
-        return numVotosLegenda;
-    }
-
-    public int getNumVotosTotais() {
-        return numVotosNominais + numVotosLegenda;
-    }
-
+    /**
+     * Retorna uma visão somente leitura dos candidatos eleitos do partido.
+     *
+     * @return lista imutável de eleitos
+     */
     public List<Candidato> getCandidatosEleitos() {
-        return new ArrayList<>(candidatosEleitos);
+        return Collections.unmodifiableList(candidatosEleitos);
     }
 
+    /**
+     * Retorna uma visão somente leitura dos candidatos do partido, na ordem de cadastro.
+     * Em ordem de votação, os candidatos estão em {@link ResultadoPartido#getCandidatos()}.
+     *
+     * @return lista imutável de candidatos
+     */
     public List<Candidato> getCandidatos() {
-        return new ArrayList<>(candidatos);
-    }   
-
-    @Override
-    public int compareTo(Partido o) {
-        int diff = Integer.compare(o.getNumVotosTotais(), getNumVotosTotais());
-        if (diff == 0) {
-            diff = -Integer.compare(o.getNumero(), numero);
-        }
-        return diff;
+        return Collections.unmodifiableList(candidatos);
     }
 }
@@ -0,0 +1,99 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ranking imutável de candidatos, usado na apuração incremental.
+ * <p>
+ * Cada ranking corresponde a uma {@link VersaoApuracao} e guarda os candidatos em um vetor, na
+ * ordem da votação dessa versão. A Eleicao cria o ranking da versão seguinte com
+ * {@link #com(Collection, Collection, Comparator)} no mesmo passo em que a publica: os
+ * candidatos que receberam votos saem do vetor, são ordenados entre si e intercalados aos
+ * demais, cuja ordem relativa não muda, em O(n + c log c) para c candidatos alterados. Os k
+ * primeiros são consultados sem reordenar o ranking inteiro.
+ */
+public class RankingCandidatos {
+    private final Candidato[] candidatos;
+
+    private RankingCandidatos(Candidato[] candidatos) {
+        this.candidatos = candidatos;
+    }
+
+    /**
+     * Cria um ranking ordenando os candidatos informados.
+     *
+     * @param candidatos candidatos do ranking
+     * @param ordem ordem da votação
+     * @return o ranking
+     */
+    static RankingCandidatos de(Collection<Candidato> candidatos, Comparator<Candidato> ordem) {
+        Candidato[] ordenados = candidatos.toArray(new Candidato[0]);
+        Arrays.sort(ordenados, ordem);
+        return new RankingCandidatos(ordenados);
+    }
+
+    /**
+     * Cria o ranking seguinte, sem alterar este: os candidatos removidos saem do ranking e os
+     * inseridos entram nas suas posições pela nova ordem. Um candidato cujos votos mudaram deve
+     * estar nas duas coleções. Os demais precisam manter entre si a mesma ordem.
+     *
+     * @param removidos candidatos que saem do ranking, comparados pela identidade
+     * @param inseridos candidatos que entram no ranking
+     * @param ordem ordem da votação na nova versão
+     * @return o novo ranking
+     */
+    RankingCandidatos com(Collection<Candidato> removidos, Collection<Candidato> inseridos, Comparator<Candidato> ordem) {
+        Set<Candidato> saem = Collections.newSetFromMap(new IdentityHashMap<>());
+        saem.addAll(removidos);
+
+        Candidato[] entram = inseridos.toArray(new Candidato[0]);
+        Arrays.sort(entram, ordem);
+
+        Candidato[] resultado = new Candidato[candidatos.length + entram.length];
+        int n = 0;
+        int j = 0;
+        for (Candidato candidato : candidatos) {
+            if (saem.contains(candidato)) {
+                continue;
+            }
+            while (j < entram.length && ordem.compare(entram[j], candidato) < 0) {
+                resultado[n++] = entram[j++];
+            }
+            resultado[n++] = candidato;
+        }
+        while (j < entram.length) {
+            resultado[n++] = entram[j++];
+        }
+        return new RankingCandidatos(Arrays.copyOf(resultado, n));
+    }
+
+    /**
+     * Retorna os k primeiros candidatos do ranking.
+     *
+     * @param k quantidade de candidatos
+     * @return lista com até k candidatos, em ordem
+     */
+    public List<Candidato> getPrimeiros(int k) {
+        return new ArrayList<>(Arrays.asList(candidatos).subList(0, Math.max(0, Math.min(k, candidatos.length))));
+    }
+
+    /**
+     * Retorna todos os candidatos do ranking, em ordem.
+     *
+     * @return lista de candidatos
+     */
+    public List<Candidato> getTodos() {
+        return new ArrayList<>(Arrays.asList(candidatos));
+    }
+
+    public int size() {
+        return candidatos.length;
+    }
+}
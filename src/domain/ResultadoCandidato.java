@@ -0,0 +1,52 @@
+package domain;
+
+import java.util.Comparator;
+
+/**
+ * Resultado imutável de um candidato em um {@link ResultadoEleicao}: o candidato, a votação
+ * capturada no momento do resultado e a sua posição no ranking de mais votados.
+ */
+public class ResultadoCandidato {
+    /**
+     * Ordem da votação capturada: mais votos primeiro, desempatados pela data de nascimento (o
+     * mais velho primeiro), pelo número e pelo município.
+     */
+    public static final Comparator<ResultadoCandidato> ORDEM = Comparator
+        .comparingInt((ResultadoCandidato r) -> -r.numVotos)
+        .thenComparingInt(r -> r.candidato.getDiaNascimento())
+        .thenComparingInt(r -> r.candidato.getNumero())
+        .thenComparing(r -> r.candidato.getCodigoMunicipio());
+
+    private final Candidato candidato;
+    private final int numVotos;
+    private final boolean eleito;
+    private final int posicao;
+
+    ResultadoCandidato(Candidato candidato, int numVotos, boolean eleito, int posicao) {
+        this.candidato = candidato;
+        this.numVotos = numVotos;
+        this.eleito = eleito;
+        this.posicao = posicao;
+    }
+
+    public Candidato getCandidato() {
+        return candidato;
+    }
+
+    public int getNumVotos() {
+        return numVotos;
+    }
+
+    public boolean isEleito() {
+        return eleito;
+    }
+
+    /**
+     * Retorna a posição do candidato no ranking de mais votados, começando em 1.
+     *
+     * @return a posição
+     */
+    public int getPosicao() {
+        return posicao;
+    }
+}
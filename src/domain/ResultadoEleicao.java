@@ -0,0 +1,180 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado imutável de uma eleição após a contagem dos votos.
+ * <p>
+ * A votação de cada candidato e partido é capturada uma única vez, os candidatos são
+ * ordenados uma única vez, e os eleitos, as posições no ranking, o ranking de cada partido
+ * e os totais são derivados dessa mesma ordenação. Todos os relatórios consomem o mesmo resultado, sem recalcular
+ * nem reordenar listas da eleição.
+ * <p>
+ * Os votos vêm de uma única {@link VersaoApuracao}, então o resultado pode ser calculado enquanto
+ * a apuração continua, sem que candidatos, partidos e totais reflitam momentos diferentes.
+ */
+public class ResultadoEleicao {
+    private final String codigoMunicipio;
+    private final long versao;
+    private final int numVagas;
+    private final List<ResultadoCandidato> candidatos;
+    private final List<ResultadoCandidato> eleitos;
+    private final List<ResultadoPartido> partidos;
+    private final int totalVotosNominais;
+    private final int totalVotosLegenda;
+
+    private ResultadoEleicao(
+        String codigoMunicipio,
+        long versao,
+        int numVagas,
+        List<ResultadoCandidato> candidatos,
+        List<ResultadoCandidato> eleitos,
+        List<ResultadoPartido> partidos
+    ) {
+        this.codigoMunicipio = codigoMunicipio;
+        this.versao = versao;
+        this.numVagas = numVagas;
+        this.candidatos = Collections.unmodifiableList(candidatos);
+        this.eleitos = Collections.unmodifiableList(eleitos);
+        this.partidos = Collections.unmodifiableList(partidos);
+
+        int nominais = 0;
+        int legenda = 0;
+        for (ResultadoPartido partido : partidos) {
+            nominais += partido.getNumVotosNominais();
+            legenda += partido.getNumVotosLegenda();
+        }
+        this.totalVotosNominais = nominais;
+        this.totalVotosLegenda = legenda;
+    }
+
+    /**
+     * Calcula o resultado da eleição a partir da última versão publicada da votação.
+     *
+     * @param eleicao eleição já apurada, ou em apuração
+     * @return o resultado da eleição
+     */
+    public static ResultadoEleicao de(Eleicao eleicao) {
+        return de(eleicao, eleicao.getVersao());
+    }
+
+    /**
+     * Calcula o resultado da eleição com a votação de uma versão.
+     *
+     * @param eleicao eleição com os candidatos cadastrados
+     * @param versao versão da votação publicada pela eleição
+     * @return o resultado da eleição
+     */
+    public static ResultadoEleicao de(Eleicao eleicao, VersaoApuracao versao) {
+        List<Candidato> ordenados = new ArrayList<>(eleicao.getNumCandidatos());
+        for (int i = 0; i < eleicao.getNumCandidatos(); i++) {
+            ordenados.add(eleicao.getCandidato(i));
+        }
+        ordenados.sort(eleicao.ordem(versao));
+
+        List<ResultadoCandidato> candidatos = new ArrayList<>(ordenados.size());
+        int posicao = 0;
+        for (Candidato candidato : ordenados) {
+            int numVotos = versao.getVotosCandidato(eleicao.getIndice(candidato));
+            candidatos.add(new ResultadoCandidato(candidato, numVotos, eleicao.isEleito(candidato), ++posicao));
+        }
+
+        List<ResultadoPartido> partidos = new ArrayList<>();
+        Map<Partido, ResultadoPartido> resultadoPorPartido = new IdentityHashMap<>();
+        List<Partido> partidosEleicao = eleicao.getPartidos();
+        for (int i = 0; i < partidosEleicao.size(); i++) {
+            Partido partido = partidosEleicao.get(i);
+            ResultadoPartido resultado = new ResultadoPartido(
+                partido, versao.getVotosNominais(i), versao.getVotosLegenda(i),
+                partido.getCandidatosEleitos().size());
+            partidos.add(resultado);
+            resultadoPorPartido.put(partido, resultado);
+        }
+
+        // Uma única passada pelos candidatos ordenados define os eleitos e o ranking de cada partido.
+        List<ResultadoCandidato> eleitos = new ArrayList<>(eleicao.getNumVagas());
+        for (ResultadoCandidato candidato : candidatos) {
+            if (candidato.isEleito()) {
+                eleitos.add(candidato);
+            }
+            ResultadoPartido partido = resultadoPorPartido.get(candidato.getCandidato().getPartido());
+            if (partido != null) {
+                partido.addCandidato(candidato);
+            }
+        }
+        partidos.sort(ResultadoPartido.ORDEM);
+
+        return new ResultadoEleicao(
+            eleicao.getCodigoMunicipio(), versao.getNumero(), eleicao.getNumVagas(), candidatos, eleitos, partidos);
+    }
+
+    public String getCodigoMunicipio() {
+        return codigoMunicipio;
+    }
+
+    /**
+     * Retorna o número da versão da votação usada no resultado.
+     *
+     * @return número da versão
+     */
+    public long getVersao() {
+        return versao;
+    }
+
+    public int getNumVagas() {
+        return numVagas;
+    }
+
+    /**
+     * Retorna os candidatos em ordem decrescente de votação.
+     *
+     * @return lista imutável de candidatos
+     */
+    public List<ResultadoCandidato> getCandidatos() {
+        return candidatos;
+    }
+
+    /**
+     * Retorna os k candidatos mais votados.
+     *
+     * @param k quantidade de candidatos
+     * @return lista imutável com até k candidatos
+     */
+    public List<ResultadoCandidato> getCandidatosMaisVotados(int k) {
+        return candidatos.subList(0, Math.max(0, Math.min(k, candidatos.size())));
+    }
+
+    /**
+     * Retorna os candidatos eleitos em ordem decrescente de votação.
+     *
+     * @return lista imutável de eleitos
+     */
+    public List<ResultadoCandidato> getEleitos() {
+        return eleitos;
+    }
+
+    /**
+     * Retorna os partidos em ordem decrescente de votação.
+     *
+     * @return lista imutável de partidos
+     */
+    public List<ResultadoPartido> getPartidos() {
+        return partidos;
+    }
+
+    public int getTotalVotos() {
+        return totalVotosNominais + totalVotosLegenda;
+    }
+
+    public int getTotalVotosNominais() {
+        return totalVotosNominais;
+    }
+
+    public int getTotalVotosLegenda() {
+        return totalVotosLegenda;
+    }
+}
@@ -0,0 +1,87 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Resultado imutável de um partido em um {@link ResultadoEleicao}, com a votação capturada
+ * no momento do resultado e os seus candidatos em ordem de votação.
+ */
+public class ResultadoPartido {
+    /** Ordem da votação capturada: total de votos decrescente, desempatado pelo número do partido. */
+    static final Comparator<ResultadoPartido> ORDEM = Comparator
+        .comparingInt((ResultadoPartido r) -> -r.getNumVotosTotais())
+        .thenComparingInt(r -> r.partido.getNumero());
+
+    private final Partido partido;
+    private final int numVotosNominais;
+    private final int numVotosLegenda;
+    private final int numEleitos;
+    private final List<ResultadoCandidato> candidatos = new ArrayList<>();
+    private final List<ResultadoCandidato> candidatosView = Collections.unmodifiableList(candidatos);
+
+    ResultadoPartido(Partido partido, int numVotosNominais, int numVotosLegenda, int numEleitos) {
+        this.partido = partido;
+        this.numVotosNominais = numVotosNominais;
+        this.numVotosLegenda = numVotosLegenda;
+        this.numEleitos = numEleitos;
+    }
+
+    /**
+     * Adiciona um candidato ao resultado. Os candidatos devem ser adicionados em ordem de votação.
+     *
+     * @param candidato resultado do candidato
+     */
+    void addCandidato(ResultadoCandidato candidato) {
+        candidatos.add(candidato);
+    }
+
+    public Partido getPartido() {
+        return partido;
+    }
+
+    public int getNumVotosNominais() {
+        return numVotosNominais;
+    }
+
+    public int getNumVotosLegenda() {
+        return numVotosLegenda;
+    }
+
+    public int getNumVotosTotais() {
+        return numVotosNominais + numVotosLegenda;
+    }
+
+    public int getNumEleitos() {
+        return numEleitos;
+    }
+
+    /**
+     * Retorna os candidatos do partido, do mais ao menos votado.
+     *
+     * @return lista imutável de candidatos
+     */
+    public List<ResultadoCandidato> getCandidatos() {
+        return candidatosView;
+    }
+
+    /**
+     * Retorna o candidato mais votado do partido.
+     *
+     * @return o candidato ou null se o partido não tiver candidatos
+     */
+    public ResultadoCandidato getPrimeiroColocado() {
+        return candidatos.isEmpty() ? null : candidatos.get(0);
+    }
+
+    /**
+     * Retorna o candidato menos votado do partido.
+     *
+     * @return o candidato ou null se o partido não tiver candidatos
+     */
+    public ResultadoCandidato getUltimoColocado() {
+        return candidatos.isEmpty() ? null : candidatos.get(candidatos.size() - 1);
+    }
+}
@@ -0,0 +1,82 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Frequência com que cada candidato foi eleito nos cenários de uma simulação, comparada
+ * com o resultado da votação apurada.
+ */
+public class ResultadoSimulacao {
+    private final List<Candidato> candidatos;
+    private final int numCenarios;
+    private final int[] vezesEleito;
+    private final ResultadoVagas resultadoBase;
+
+    /**
+     * @param candidatos candidatos, na ordem dos índices da distribuição
+     * @param numCenarios número de cenários simulados
+     * @param vezesEleito número de cenários em que cada candidato foi eleito
+     * @param resultadoBase distribuição das vagas sem alterações
+     */
+    public ResultadoSimulacao(List<Candidato> candidatos, int numCenarios, int[] vezesEleito,
+            ResultadoVagas resultadoBase) {
+        this.candidatos = Collections.unmodifiableList(new ArrayList<>(candidatos));
+        this.numCenarios = numCenarios;
+        this.vezesEleito = vezesEleito.clone();
+        this.resultadoBase = resultadoBase;
+    }
+
+    public List<Candidato> getCandidatos() {
+        return candidatos;
+    }
+
+    public int getNumCenarios() {
+        return numCenarios;
+    }
+
+    public ResultadoVagas getResultadoBase() {
+        return resultadoBase;
+    }
+
+    /**
+     * Retorna em quantos cenários o candidato foi eleito.
+     *
+     * @param candidato índice do candidato
+     * @return número de cenários
+     */
+    public int getVezesEleito(int candidato) {
+        return vezesEleito[candidato];
+    }
+
+    /**
+     * Retorna a fração dos cenários em que o candidato foi eleito.
+     *
+     * @param candidato índice do candidato
+     * @return frequência entre 0 e 1
+     */
+    public double getFrequencia(int candidato) {
+        return numCenarios > 0 ? (double) vezesEleito[candidato] / numCenarios : 0;
+    }
+
+    /**
+     * Retorna os índices dos candidatos cujo resultado mudou em ao menos um cenário
+     * (eleitos na apuração que perderam a vaga, ou não eleitos que a ganharam), dos
+     * menos para os mais estáveis.
+     *
+     * @return índices dos candidatos
+     */
+    public List<Integer> getCandidatosInstaveis() {
+        List<Integer> instaveis = new ArrayList<>();
+        for (int i = 0; i < candidatos.size(); i++) {
+            int esperado = resultadoBase.isEleito(i) ? numCenarios : 0;
+            if (vezesEleito[i] != esperado) {
+                instaveis.add(i);
+            }
+        }
+        instaveis.sort(Comparator.comparingInt(i -> Math.abs(2 * vezesEleito[i] - numCenarios)));
+        return instaveis;
+    }
+}
@@ -0,0 +1,103 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado da distribuição das vagas de uma eleição: os quocientes, as vagas de cada
+ * agremiação (partido isolado ou federação) e os candidatos eleitos, na ordem em que
+ * as vagas foram preenchidas.
+ */
+public class ResultadoVagas {
+    private final int votosValidos;
+    private final int quocienteEleitoral;
+    private final int numVagas;
+    private final int numVagasPorQP;
+    private final List<Candidato> eleitos;
+    private final boolean[] eleito;
+
+    private ResultadoVagas(int votosValidos, int quocienteEleitoral, int numVagas, int numVagasPorQP,
+            List<Candidato> eleitos, boolean[] eleito) {
+        this.votosValidos = votosValidos;
+        this.quocienteEleitoral = quocienteEleitoral;
+        this.numVagas = numVagas;
+        this.numVagasPorQP = numVagasPorQP;
+        this.eleitos = Collections.unmodifiableList(eleitos);
+        this.eleito = eleito;
+    }
+
+    /**
+     * Cria o resultado de uma distribuição.
+     *
+     * @param votosValidos total de votos nominais e de legenda
+     * @param quocienteEleitoral quociente eleitoral
+     * @param numVagas número de vagas em disputa
+     * @param numVagasPorQP vagas preenchidas pelos quocientes partidários
+     * @param eleitos candidatos eleitos, na ordem de preenchimento das vagas
+     * @param eleito indica, pelo índice do candidato, se ele foi eleito
+     * @return o resultado
+     */
+    public static ResultadoVagas de(int votosValidos, int quocienteEleitoral, int numVagas, int numVagasPorQP,
+            List<Candidato> eleitos, boolean[] eleito) {
+        return new ResultadoVagas(votosValidos, quocienteEleitoral, numVagas, numVagasPorQP,
+            new ArrayList<>(eleitos), eleito.clone());
+    }
+
+    public int getVotosValidos() {
+        return votosValidos;
+    }
+
+    public int getQuocienteEleitoral() {
+        return quocienteEleitoral;
+    }
+
+    public int getNumVagas() {
+        return numVagas;
+    }
+
+    /**
+     * Retorna quantas vagas foram preenchidas pelos quocientes partidários; as demais
+     * vieram da distribuição das sobras.
+     *
+     * @return número de vagas preenchidas por QP
+     */
+    public int getNumVagasPorQP() {
+        return numVagasPorQP;
+    }
+
+    /**
+     * Retorna os eleitos na ordem em que as vagas foram preenchidas.
+     *
+     * @return lista de candidatos eleitos
+     */
+    public List<Candidato> getEleitos() {
+        return eleitos;
+    }
+
+    /**
+     * Indica se o candidato de índice informado foi eleito.
+     *
+     * @param candidato índice do candidato na distribuição
+     * @return true se eleito
+     */
+    public boolean isEleito(int candidato) {
+        return eleito[candidato];
+    }
+
+    /**
+     * Retorna o número de vagas obtidas por cada partido. Em uma federação, cada vaga
+     * conta para o partido do candidato eleito.
+     *
+     * @return vagas por partido, apenas dos partidos com ao menos uma vaga
+     */
+    public Map<Partido, Integer> getVagasPorPartido() {
+        Map<Partido, Integer> vagas = new IdentityHashMap<>();
+        for (Candidato candidato : eleitos) {
+            vagas.merge(candidato.getPartido(), 1, Integer::sum);
+        }
+        return vagas;
+    }
+}
@@ -0,0 +1,26 @@
+package domain;
+
+/**
+ * Votação de uma eleição indexada por posições densas: cada candidato e cada partido
+ * ocupam um índice fixo definido por quem monta a tabela (ver
+ * {@link services.DistribuicaoVagas}). Permite calcular a distribuição de vagas tanto
+ * sobre a votação apurada quanto sobre visões alteradas dela, sem copiar a eleição.
+ */
+public interface TabelaVotos {
+
+    /**
+     * Retorna os votos nominais do candidato.
+     *
+     * @param candidato índice do candidato
+     * @return quantidade de votos nominais
+     */
+    int getVotosNominais(int candidato);
+
+    /**
+     * Retorna os votos de legenda do partido.
+     *
+     * @param partido índice do partido
+     * @return quantidade de votos de legenda
+     */
+    int getVotosLegenda(int partido);
+}
@@ -0,0 +1,123 @@
+package domain;
+
+import java.util.Arrays;
+
+/**
+ * Versão imutável da votação de uma eleição, publicada a cada incremento aplicado.
+ * <p>
+ * Os votos são guardados em vetores pelos índices densos de candidatos e partidos da
+ * {@link Eleicao}. Uma versão nunca é alterada: cada incremento gera uma cópia com os novos
+ * totais, de modo que quem lê uma versão enxerga sempre um estado em que os votos de cada
+ * candidato, de cada partido e os totais são coerentes entre si, mesmo com a apuração em
+ * andamento em outras threads.
+ */
+public class VersaoApuracao {
+    static final VersaoApuracao VAZIA = new VersaoApuracao(0, new int[0], new int[0], new int[0]);
+
+    private final long numero;
+    private final int[] votosCandidatos;
+    private final int[] votosNominais;
+    private final int[] votosLegenda;
+    private final int totalVotosNominais;
+    private final int totalVotosLegenda;
+
+    private VersaoApuracao(long numero, int[] votosCandidatos, int[] votosNominais, int[] votosLegenda) {
+        this.numero = numero;
+        this.votosCandidatos = votosCandidatos;
+        this.votosNominais = votosNominais;
+        this.votosLegenda = votosLegenda;
+
+        int nominais = 0;
+        int legenda = 0;
+        for (int i = 0; i < votosNominais.length; i++) {
+            nominais += votosNominais[i];
+            legenda += votosLegenda[i];
+        }
+        this.totalVotosNominais = nominais;
+        this.totalVotosLegenda = legenda;
+    }
+
+    /**
+     * Cria a versão seguinte, somando um incremento a esta.
+     *
+     * @param incremento votos a somar
+     * @param partidoDoCandidato índice do partido de cada candidato
+     * @return a nova versão
+     */
+    VersaoApuracao com(IncrementoVotos incremento, int[] partidoDoCandidato) {
+        int numPartidos = Math.max(votosLegenda.length, incremento.getNumPartidos());
+        int numCandidatos = Math.max(votosCandidatos.length, incremento.getNumCandidatos());
+        int[] candidatos = Arrays.copyOf(votosCandidatos, numCandidatos);
+        int[] nominais = Arrays.copyOf(votosNominais, numPartidos);
+        int[] legenda = Arrays.copyOf(votosLegenda, numPartidos);
+
+        for (int i = 0; i < incremento.getNumCandidatos(); i++) {
+            int votos = incremento.getVotosCandidato(i);
+            if (votos != 0) {
+                candidatos[i] += votos;
+                int partido = partidoDoCandidato[i];
+                if (partido >= nominais.length) {
+                    nominais = Arrays.copyOf(nominais, partido + 1);
+                    legenda = Arrays.copyOf(legenda, partido + 1);
+                }
+                nominais[partido] += votos;
+            }
+        }
+        for (int i = 0; i < incremento.getNumPartidos(); i++) {
+            legenda[i] += incremento.getVotosLegenda(i);
+        }
+
+        return new VersaoApuracao(numero + 1, candidatos, nominais, legenda);
+    }
+
+    /**
+     * Retorna o número da versão, que cresce a cada incremento aplicado à eleição.
+     *
+     * @return número da versão, 0 antes de qualquer voto
+     */
+    public long getNumero() {
+        return numero;
+    }
+
+    /**
+     * Retorna os votos de um candidato nesta versão.
+     *
+     * @param candidato índice do candidato na eleição
+     * @return votos do candidato
+     */
+    public int getVotosCandidato(int candidato) {
+        return candidato >= 0 && candidato < votosCandidatos.length ? votosCandidatos[candidato] : 0;
+    }
+
+    /**
+     * Retorna os votos nominais de um partido nesta versão.
+     *
+     * @param partido índice do partido na eleição
+     * @return votos nominais do partido
+     */
+    public int getVotosNominais(int partido) {
+        return partido >= 0 && partido < votosNominais.length ? votosNominais[partido] : 0;
+    }
+
+    /**
+     * Retorna os votos de legenda de um partido nesta versão.
+     *
+     * @param partido índice do partido na eleição
+     * @return votos de legenda do partido
+     */
+    public int getVotosLegenda(int partido) {
+        return partido >= 0 && partido < votosLegenda.length ? votosLegenda[partido] : 0;
+    }
+
+    public int getTotalVotos() {
+        return totalVotosNominais + totalVotosLegenda;
+    }
+
+    public int getTotalVotosNominais() {
+        return totalVotosNominais;
+    }
+
+    public int getTotalVotosLegenda() {
+        return totalVotosLegenda;
+    }
+}
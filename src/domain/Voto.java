@@ -35,11 +35,12 @@ public class Voto {
     }
 
     /**
-     * Indica se o voto é do tipo nominal.
+     * Indica se o voto é do tipo nominal. Votos de legenda só existem nos cargos
+     * proporcionais; ver {@link Cargo#isVotoNominal(int)}.
      *
      * @return true se o voto é nominal; false caso contrário
      */
     public boolean isNominal() {
-        return numVotavel > 99;
+        return cargo != null ? cargo.isVotoNominal(numVotavel) : numVotavel > 99;
     }
 }
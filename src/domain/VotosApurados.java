@@ -0,0 +1,49 @@
+package domain;
+
+import java.util.List;
+
+/**
+ * Tabela de votos imutável, capturada de uma versão publicada da votação dos candidatos e partidos.
+ */
+public class VotosApurados implements TabelaVotos {
+    private final int[] votosNominais;
+    private final int[] votosLegenda;
+
+    /**
+     * Captura a votação dos candidatos e partidos de uma versão publicada pela eleição, na
+     * ordem das listas, sem ler os contadores que ainda podem estar sendo incrementados.
+     *
+     * @param candidatos candidatos, na ordem dos índices
+     * @param partidos partidos, na ordem dos índices
+     * @param eleicao eleição dos candidatos e partidos
+     * @param versao versão da votação
+     */
+    public VotosApurados(List<Candidato> candidatos, List<Partido> partidos, Eleicao eleicao, VersaoApuracao versao) {
+        votosNominais = new int[candidatos.size()];
+        for (int i = 0; i < votosNominais.length; i++) {
+            votosNominais[i] = versao.getVotosCandidato(eleicao.getIndice(candidatos.get(i)));
+        }
+        votosLegenda = new int[partidos.size()];
+        for (int i = 0; i < votosLegenda.length; i++) {
+            votosLegenda[i] = versao.getVotosLegenda(eleicao.findIndicePartido(partidos.get(i).getNumero()));
+        }
+    }
+
+    @Override
+    public int getVotosNominais(int candidato) {
+        return votosNominais[candidato];
+    }
+
+    @Override
+    public int getVotosLegenda(int partido) {
+        return votosLegenda[partido];
+    }
+
+    public int getNumCandidatos() {
+        return votosNominais.length;
+    }
+
+    public int getNumPartidos() {
+        return votosLegenda.length;
+    }
+}
@@ -0,0 +1,64 @@
+package domain;
+
+import util.IntIntMap;
+
+/**
+ * Visão de uma {@link TabelaVotos} com alterações: a tabela base nunca é modificada, e cada
+ * alteração é guardada como uma diferença esparsa, somada na leitura. Criar ou limpar a visão
+ * custa apenas o número de alterações, sem copiar a votação.
+ * <p>
+ * Cada visão deve ser usada por uma única thread; várias visões podem compartilhar a mesma base.
+ */
+public class VotosPerturbados implements TabelaVotos {
+    private final TabelaVotos base;
+    private final IntIntMap diferencasNominais = new IntIntMap(16);
+    private final IntIntMap diferencasLegenda = new IntIntMap(16);
+
+    public VotosPerturbados(TabelaVotos base) {
+        this.base = base;
+    }
+
+    /**
+     * Soma uma diferença aos votos nominais do candidato.
+     *
+     * @param candidato índice do candidato
+     * @param diferenca votos a somar, podendo ser negativo
+     */
+    public void alteraVotosNominais(int candidato, int diferenca) {
+        diferencasNominais.adiciona(candidato, diferenca);
+    }
+
+    /**
+     * Soma uma diferença aos votos de legenda do partido.
+     *
+     * @param partido índice do partido
+     * @param diferenca votos a somar, podendo ser negativo
+     */
+    public void alteraVotosLegenda(int partido, int diferenca) {
+        diferencasLegenda.adiciona(partido, diferenca);
+    }
+
+    /**
+     * Desfaz todas as alterações, voltando à votação da base.
+     */
+    public void limpa() {
+        diferencasNominais.limpa();
+        diferencasLegenda.limpa();
+    }
+
+    /**
+     * Retorna os votos nominais com a alteração, nunca negativos.
+     */
+    @Override
+    public int getVotosNominais(int candidato) {
+        return Math.max(0, base.getVotosNominais(candidato) + diferencasNominais.get(candidato));
+    }
+
+    /**
+     * Retorna os votos de legenda com a alteração, nunca negativos.
+     */
+    @Override
+    public int getVotosLegenda(int partido) {
+        return Math.max(0, base.getVotosLegenda(partido) + diferencasLegenda.get(partido));
+    }
+}
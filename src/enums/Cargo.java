@@ -4,14 +4,31 @@ package enums;
  * Enumeração que representa os cargos.
  */
 public enum Cargo {
-    VEREADOR(13);
+    PREFEITO(11, false),
+    VEREADOR(13, true);
+
+    // Cargos indexados pelo código, que é pequeno, para a busca em O(1) na leitura dos votos.
+    private static final Cargo[] POR_CODIGO;
+
+    static {
+        int maiorCodigo = 0;
+        for (Cargo cargo : values()) {
+            maiorCodigo = Math.max(maiorCodigo, cargo.codigo);
+        }
+        POR_CODIGO = new Cargo[maiorCodigo + 1];
+        for (Cargo cargo : values()) {
+            POR_CODIGO[cargo.codigo] = cargo;
+        }
+    }
 
     private int codigo;
+    private boolean proporcional;
 
-    Cargo(int codigo) {
+    Cargo(int codigo, boolean proporcional) {
         this.codigo = codigo;
+        this.proporcional = proporcional;
     }
-    
+
     /**
      * Retorna o código do cargo.
      *
@@ -21,6 +38,28 @@ public enum Cargo {
         return codigo;
     }
 
+    /**
+     * Indica se o cargo é eleito pelo sistema proporcional, com votos de legenda e
+     * distribuição de vagas por quociente, ou pelo majoritário.
+     *
+     * @return true para cargos proporcionais
+     */
+    public boolean isProporcional() {
+        return proporcional;
+    }
+
+    /**
+     * Indica se um voto para o cargo é nominal. Nos cargos proporcionais, os números de dois
+     * dígitos são votos de legenda; nos majoritários, o candidato é votado pelo número do
+     * partido e todo voto é nominal.
+     *
+     * @param numVotavel número votável
+     * @return true se o voto é nominal
+     */
+    public boolean isVotoNominal(int numVotavel) {
+        return !proporcional || numVotavel > 99;
+    }
+
     /**
      * Retorna o cargo a partir do código informado.
      *
@@ -28,11 +67,9 @@ public enum Cargo {
      * @return o cargo correspondente ou null se não encontrado
      */
     public static Cargo valueOfCodigo(int codigo) {
-        for (Cargo cargo : Cargo.values()) {
-            if (cargo.getCodigo() == codigo) {
-                return cargo;
-            }
+        if (codigo < 0 || codigo >= POR_CODIGO.length) {
+            return null;
         }
-        return null;
+        return POR_CODIGO[codigo];
     }
 }
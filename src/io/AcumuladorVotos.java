@@ -0,0 +1,213 @@
+package io;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import domain.LoteVotos;
+import domain.Voto;
+import enums.Cargo;
+import util.Dicionario;
+import util.IntIntMap;
+
+/**
+ * Contagem dos votos lidos, somando a quantidade por município, cargo e número votável.
+ * Cada thread de leitura mantém o seu acumulador, e os parciais são combinados ao final.
+ */
+public class AcumuladorVotos {
+    private static final int BITS_NUMERO = 20;
+
+    // Contagens indexadas pelo id do município em Dicionario.MUNICIPIOS.
+    private IntIntMap[] porMunicipio = new IntIntMap[8];
+    // Linhas do arquivo lidas e descartadas pelo filtro de cargo, guardadas junto com o cache.
+    private long numLinhas;
+    private long numLinhasFiltradasCargo;
+
+    /**
+     * Soma a quantidade de votos de uma linha do arquivo.
+     *
+     * @param idMunicipio id do município em {@link Dicionario#MUNICIPIOS}
+     * @param codigoCargo código do cargo
+     * @param numVotavel número votável
+     * @param quantidade quantidade de votos
+     */
+    void adiciona(int idMunicipio, int codigoCargo, int numVotavel, int quantidade) {
+        if (numVotavel < 0 || numVotavel >= 1 << BITS_NUMERO || codigoCargo < 0 || codigoCargo >= 1 << 11) {
+            throw new IllegalArgumentException(
+                "Voto fora do intervalo suportado: cargo " + codigoCargo + ", número " + numVotavel);
+        }
+        getQuantidades(idMunicipio).adiciona(codigoCargo << BITS_NUMERO | numVotavel, quantidade);
+    }
+
+    /**
+     * Soma uma quantidade diretamente a uma chave já codificada (cargo e número votável),
+     * como gravada pelo {@link CacheBinario}.
+     *
+     * @param idMunicipio id do município em {@link Dicionario#MUNICIPIOS}
+     * @param chave cargo e número votável codificados
+     * @param quantidade quantidade de votos
+     */
+    void adicionaEntrada(int idMunicipio, int chave, int quantidade) {
+        getQuantidades(idMunicipio).adiciona(chave, quantidade);
+    }
+
+    /**
+     * Retorna o número de pares de cargo e número votável contados no município.
+     *
+     * @param idMunicipio id do município em {@link Dicionario#MUNICIPIOS}
+     * @return número de entradas
+     */
+    int getNumEntradas(int idMunicipio) {
+        if (idMunicipio < 0 || idMunicipio >= porMunicipio.length || porMunicipio[idMunicipio] == null) {
+            return 0;
+        }
+        return porMunicipio[idMunicipio].size();
+    }
+
+    /**
+     * Percorre as contagens do município com as chaves ainda codificadas.
+     *
+     * @param idMunicipio id do município em {@link Dicionario#MUNICIPIOS}
+     * @param visitante recebe cada chave e sua quantidade
+     */
+    void forEachEntrada(int idMunicipio, IntIntMap.Visitante visitante) {
+        if (getNumEntradas(idMunicipio) > 0) {
+            porMunicipio[idMunicipio].forEach(visitante);
+        }
+    }
+
+    /**
+     * Registra as linhas do arquivo que originaram a contagem.
+     *
+     * @param lidas linhas lidas
+     * @param filtradasCargo linhas descartadas por serem de outros cargos
+     */
+    void adicionaLinhas(long lidas, long filtradasCargo) {
+        numLinhas += lidas;
+        numLinhasFiltradasCargo += filtradasCargo;
+    }
+
+    long getNumLinhas() {
+        return numLinhas;
+    }
+
+    long getNumLinhasFiltradasCargo() {
+        return numLinhasFiltradasCargo;
+    }
+
+    /**
+     * Soma a este acumulador as contagens de outro.
+     *
+     * @param outro acumulador parcial
+     */
+    void combina(AcumuladorVotos outro) {
+        adicionaLinhas(outro.numLinhas, outro.numLinhasFiltradasCargo);
+        for (int id = 0; id < outro.porMunicipio.length; id++) {
+            if (outro.porMunicipio[id] != null) {
+                getQuantidades(id).adicionaTodos(outro.porMunicipio[id]);
+            }
+        }
+    }
+
+    /**
+     * Retorna os códigos dos municípios que tiveram votos lidos.
+     *
+     * @return lista de códigos de município
+     */
+    public List<String> getMunicipios() {
+        List<String> municipios = new ArrayList<>();
+        for (int id = 0; id < porMunicipio.length; id++) {
+            if (porMunicipio[id] != null) {
+                municipios.add(Dicionario.MUNICIPIOS.getValor(id));
+            }
+        }
+        return municipios;
+    }
+
+    /**
+     * Emite um voto agregado por cargo e número votável para cada município lido.
+     *
+     * @param consumidor destino dos votos agregados
+     */
+    public void emite(Consumer<Voto> consumidor) {
+        for (String codigoMunicipio : getMunicipios()) {
+            emite(codigoMunicipio, consumidor);
+        }
+    }
+
+    /**
+     * Emite um voto agregado por cargo e número votável para o município informado.
+     * Municípios diferentes podem ser emitidos em threads diferentes.
+     *
+     * @param codigoMunicipio código do município
+     * @param consumidor destino dos votos agregados
+     */
+    public void emite(String codigoMunicipio, Consumer<Voto> consumidor) {
+        int id = Dicionario.MUNICIPIOS.findId(codigoMunicipio);
+        if (id < 0 || id >= porMunicipio.length || porMunicipio[id] == null) {
+            return;
+        }
+
+        porMunicipio[id].forEach((chave, quantidade) -> {
+            Cargo cargo = Cargo.valueOfCodigo(chave >>> BITS_NUMERO);
+            int numVotavel = chave & ((1 << BITS_NUMERO) - 1);
+            consumidor.accept(new Voto(cargo, codigoMunicipio, numVotavel, quantidade));
+        });
+    }
+
+    /**
+     * Emite os votos agregados do município informado em lotes colunares, sem criar um
+     * objeto por voto. O lote é reaproveitado entre as chamadas ao consumidor.
+     *
+     * @param codigoMunicipio código do município
+     * @param consumidor destino dos lotes de votos
+     */
+    public void emiteLotes(String codigoMunicipio, Consumer<LoteVotos> consumidor) {
+        emiteLotes(codigoMunicipio, null, consumidor);
+    }
+
+    /**
+     * Emite em lotes os votos agregados de um único cargo no município informado, como em
+     * {@link #emiteLotes(String, Consumer)}. Todos os cargos são contados na mesma leitura do
+     * arquivo, e cada eleição recebe apenas os votos do seu cargo.
+     *
+     * @param codigoMunicipio código do município
+     * @param cargo cargo dos votos emitidos, ou null para todos
+     * @param consumidor destino dos lotes de votos
+     */
+    public void emiteLotes(String codigoMunicipio, Cargo cargo, Consumer<LoteVotos> consumidor) {
+        int id = Dicionario.MUNICIPIOS.findId(codigoMunicipio);
+        if (getNumEntradas(id) == 0) {
+            return;
+        }
+
+        int codigoCargo = cargo != null ? cargo.getCodigo() : -1;
+        LoteVotos lote = new LoteVotos(Math.min(getNumEntradas(id), LoteVotos.CAPACIDADE_PADRAO));
+        porMunicipio[id].forEach((chave, quantidade) -> {
+            if (codigoCargo >= 0 && chave >>> BITS_NUMERO != codigoCargo) {
+                return;
+            }
+            lote.adiciona(id, chave >>> BITS_NUMERO, chave & ((1 << BITS_NUMERO) - 1), quantidade);
+            if (lote.isCheio()) {
+                consumidor.accept(lote);
+                lote.limpa();
+            }
+        });
+        if (lote.size() > 0) {
+            consumidor.accept(lote);
+        }
+    }
+
+    private IntIntMap getQuantidades(int idMunicipio) {
+        if (idMunicipio >= porMunicipio.length) {
+            porMunicipio = Arrays.copyOf(porMunicipio, Math.max(idMunicipio + 1, porMunicipio.length * 2));
+        }
+        IntIntMap quantidades = porMunicipio[idMunicipio];
+        if (quantidades == null) {
+            quantidades = new IntIntMap(1024);
+            porMunicipio[idMunicipio] = quantidades;
+        }
+        return quantidades;
+    }
+}
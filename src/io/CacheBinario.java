@@ -0,0 +1,500 @@
+package io;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import domain.Candidato;
+import domain.Partido;
+import enums.Cargo;
+import enums.Genero;
+import enums.Situacao;
+import util.CSVUtil;
+import util.Dicionario;
+import util.Metricas;
+
+/**
+ * Cache binário dos arquivos de candidatos e de votos já processados.
+ * <p>
+ * Na primeira leitura de um arquivo CSV, as colunas utilizadas são gravadas já convertidas em
+ * um arquivo {@code <arquivo>.cache} ao lado do original. Nas execuções seguintes, se o arquivo
+ * original não mudou (mesmo tamanho, data de modificação e CRC32 do arquivo inteiro), o cache é
+ * mapeado em memória e lido diretamente, sem nenhum parse de CSV. Do arquivo de votos é guardada
+ * a contagem por município, cargo e número votável, que é tudo o que a apuração utiliza. Quando
+ * o cache é gerado, o CRC32 do arquivo original é calculado em outra thread durante o parse.
+ * <p>
+ * A contagem de votos gerada para um único município guarda apenas esse município, já que a
+ * leitura aplica o filtro de município; ela só é reaproveitada por leituras do mesmo município,
+ * enquanto a contagem de todos os municípios serve a qualquer leitura.
+ * <p>
+ * O conteúdo do cache termina com o seu próprio CRC32. Um cache truncado, corrompido ou que não
+ * possa ser decodificado é tratado como ausente: os dados são lidos do CSV e o cache é regravado.
+ * <p>
+ * Uma leitura do cache é registrada nas {@link Metricas}, e os contadores de linhas recebem os
+ * valores da leitura do CSV que gerou o cache.
+ * <p>
+ * O cache pode ser desligado com a propriedade de sistema {@code -Deleicao.cache=false}.
+ */
+public class CacheBinario {
+    private static final int MAGICO = 0x54534543; // "TSEC"
+    // Incrementada quando o formato ou os dados guardados mudam (a versão 2 inclui o cargo de prefeito,
+    // a 3, o número de linhas do arquivo de votos e a 4, o CRC do arquivo inteiro, o município da
+    // contagem e o CRC do próprio cache).
+    private static final int VERSAO = 4;
+    private static final int TIPO_CANDIDATOS = 1;
+    private static final int TIPO_VOTOS = 2;
+    private static final String EXTENSAO = ".cache";
+    private static final String TODOS_MUNICIPIOS = "";
+    // Mágico, versão e tipo, a assinatura do original e o tamanho do município; o CRC do cache ao final.
+    private static final int TAMANHO_MINIMO = 3 * Integer.BYTES + 3 * Long.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int TAMANHO_BLOCO_CRC = 1 << 20;
+
+    /**
+     * Indica se o cache está habilitado.
+     *
+     * @return false se a propriedade eleicao.cache for "false"
+     */
+    public static boolean isHabilitado() {
+        return !"false".equalsIgnoreCase(System.getProperty("eleicao.cache"));
+    }
+
+    /**
+     * Lê os candidatos do cache, se ele estiver válido, ou do CSV, gravando o cache em seguida.
+     *
+     * @param filePath o caminho do arquivo CSV de candidatos
+     * @return um conjunto de candidatos
+     */
+    public static Set<Candidato> readCandidatos(String filePath) {
+        if (!isHabilitado()) {
+            return CandidatoReader.readCandidatos(filePath);
+        }
+
+        Path fonte = CSVUtil.getArquivo(filePath);
+        Path cache = Paths.get(filePath + EXTENSAO);
+        try {
+            ByteBuffer buffer = abre(cache, TIPO_CANDIDATOS, fonte, TODOS_MUNICIPIOS);
+            if (buffer != null) {
+                Set<Candidato> candidatos = leCandidatos(buffer);
+                Metricas.adiciona(Metricas.Contador.LEITURAS_CACHE_CANDIDATOS, 1);
+                Metricas.adiciona(Metricas.Contador.LINHAS_CANDIDATOS, candidatos.size());
+                return candidatos;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Cache de candidatos ignorado: " + e);
+        }
+
+        Assinatura assinatura = Assinatura.calculaEmParalelo(fonte);
+        Set<Candidato> candidatos = CandidatoReader.readCandidatos(filePath);
+        try {
+            gravaCandidatos(cache, assinatura.aguarda(), candidatos);
+        } catch (IOException e) {
+            // Sem permissão de escrita, por exemplo: os candidatos já lidos continuam válidos.
+        }
+        return candidatos;
+    }
+
+    /**
+     * Obtém a contagem dos votos do cache, se ele estiver válido, ou do CSV com
+     * {@link VotoReader#contaVotos(String, String, int)}, gravando o cache em seguida.
+     * Sem um cache válido, a contagem aplica o filtro de município, e o cache gravado
+     * guarda apenas o município pedido.
+     *
+     * @param filePath o caminho do arquivo CSV de votos
+     * @param codigoMunicipio o código do município desejado, ou null para todos
+     * @param numThreads número de threads de leitura do CSV
+     * @return a contagem dos votos
+     */
+    public static AcumuladorVotos contaVotos(String filePath, String codigoMunicipio, int numThreads) {
+        if (!isHabilitado()) {
+            return VotoReader.contaVotos(filePath, codigoMunicipio, numThreads);
+        }
+
+        String escopo = codigoMunicipio != null ? codigoMunicipio : TODOS_MUNICIPIOS;
+        Path fonte = CSVUtil.getArquivo(filePath);
+        Path cache = Paths.get(filePath + EXTENSAO);
+        try {
+            ByteBuffer buffer = abre(cache, TIPO_VOTOS, fonte, escopo);
+            if (buffer != null) {
+                AcumuladorVotos contagem = leVotos(buffer);
+                Metricas.adiciona(Metricas.Contador.LEITURAS_CACHE_VOTOS, 1);
+                Metricas.adiciona(Metricas.Contador.LINHAS_VOTOS, contagem.getNumLinhas());
+                Metricas.adiciona(Metricas.Contador.LINHAS_FILTRADAS_CARGO, contagem.getNumLinhasFiltradasCargo());
+                return contagem;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Cache de votos ignorado: " + e);
+        }
+
+        Assinatura assinatura = Assinatura.calculaEmParalelo(fonte);
+        AcumuladorVotos contagem = VotoReader.contaVotos(filePath, codigoMunicipio, numThreads);
+        try {
+            gravaVotos(cache, assinatura.aguarda(), escopo, contagem);
+        } catch (IOException e) {
+            // Como nos candidatos, a falha na gravação não invalida a contagem já feita.
+        }
+        return contagem;
+    }
+
+    /**
+     * Calcula o CRC32 do arquivo inteiro.
+     */
+    private static long crc(Path arquivo) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            ByteBuffer bloco = ByteBuffer.allocateDirect(TAMANHO_BLOCO_CRC);
+            while (canal.read(bloco) > 0) {
+                bloco.flip();
+                crc.update(bloco);
+                bloco.clear();
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Mapeia o cache em memória e verifica o seu conteúdo e o seu cabeçalho. O CRC do arquivo
+     * original, que exige ler o arquivo inteiro, só é calculado se o tamanho e a data de
+     * modificação conferirem.
+     *
+     * @return o conteúdo do cache posicionado após o cabeçalho, limitado ao fim dos dados, ou
+     *         null se o cache não existir, estiver corrompido ou não corresponder ao arquivo
+     *         original e ao município pedido
+     */
+    private static ByteBuffer abre(Path cache, int tipo, Path fonte, String escopo) throws IOException {
+        if (!Files.isRegularFile(cache)) {
+            return null;
+        }
+
+        ByteBuffer buffer;
+        try (FileChannel canal = FileChannel.open(cache, StandardOpenOption.READ)) {
+            buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        if (buffer.remaining() < TAMANHO_MINIMO) {
+            return null;
+        }
+
+        int fimDados = buffer.limit() - Long.BYTES;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().limit(fimDados));
+        if (buffer.getLong(fimDados) != crc.getValue()) {
+            return null;
+        }
+        buffer.limit(fimDados);
+
+        if (buffer.getInt() != MAGICO || buffer.getInt() != VERSAO || buffer.getInt() != tipo
+                || buffer.getLong() != Files.size(fonte)
+                || buffer.getLong() != Files.getLastModifiedTime(fonte).toMillis()) {
+            return null;
+        }
+        long crcFonte = buffer.getLong();
+        String escopoCache = leTexto(buffer);
+        if (!escopoCache.equals(TODOS_MUNICIPIOS) && !escopoCache.equals(escopo)) {
+            return null;
+        }
+        return crcFonte == crc(fonte) ? buffer : null;
+    }
+
+    /**
+     * Cria o arquivo do cache com o cabeçalho. O CRC de tudo o que for escrito é gravado ao
+     * final por {@link Saida#close()}.
+     */
+    private static Saida criaSaida(Path temporario, int tipo, long[] assinatura, String escopo) throws IOException {
+        Saida out = new Saida(new CheckedOutputStream(Files.newOutputStream(temporario), new CRC32()));
+        out.writeInt(MAGICO);
+        out.writeInt(VERSAO);
+        out.writeInt(tipo);
+        for (long valor : assinatura) {
+            out.writeLong(valor);
+        }
+        escreveTexto(out, escopo);
+        return out;
+    }
+
+    /**
+     * Saída do cache que, ao ser fechada, grava o CRC do conteúdo escrito.
+     */
+    private static class Saida extends DataOutputStream {
+        private final CheckedOutputStream checked;
+
+        Saida(CheckedOutputStream checked) {
+            super(new BufferedOutputStream(checked, 1 << 16));
+            this.checked = checked;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                writeLong(checked.getChecksum().getValue());
+            } finally {
+                super.close();
+            }
+        }
+    }
+
+    /**
+     * Assinatura do arquivo original: tamanho e data de modificação, lidos antes do parse, e
+     * o CRC32 do arquivo inteiro, calculado em outra thread enquanto o parse acontece.
+     */
+    private static class Assinatura {
+        private final long tamanho;
+        private final long modificacao;
+        private final CompletableFuture<Long> crc;
+
+        private Assinatura(long tamanho, long modificacao, CompletableFuture<Long> crc) {
+            this.tamanho = tamanho;
+            this.modificacao = modificacao;
+            this.crc = crc;
+        }
+
+        static Assinatura calculaEmParalelo(Path fonte) {
+            try {
+                long tamanho = Files.size(fonte);
+                long modificacao = Files.getLastModifiedTime(fonte).toMillis();
+                CompletableFuture<Long> crc = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return crc(fonte);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, tarefa -> {
+                    Thread thread = new Thread(tarefa, "cache-crc");
+                    thread.setDaemon(true);
+                    thread.start();
+                });
+                return new Assinatura(tamanho, modificacao, crc);
+            } catch (IOException e) {
+                return new Assinatura(0, 0, CompletableFuture.failedFuture(e));
+            }
+        }
+
+        /**
+         * Aguarda o CRC.
+         *
+         * @return tamanho, data de modificação e CRC
+         * @throws IOException se o arquivo original não pôde ser lido
+         */
+        long[] aguarda() throws IOException {
+            try {
+                return new long[] { tamanho, modificacao, crc.join() };
+            } catch (CompletionException e) {
+                Throwable causa = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+                throw causa instanceof IOException ? (IOException) causa : new IOException(causa);
+            }
+        }
+    }
+
+    /**
+     * Cria um arquivo temporário com nome único no diretório do cache, para que execuções
+     * simultâneas não escrevam no mesmo arquivo e a troca pelo cache seja um rename atômico.
+     */
+    private static Path criaTemporario(Path cache) throws IOException {
+        Path absoluto = cache.toAbsolutePath();
+        return Files.createTempFile(absoluto.getParent(), absoluto.getFileName() + ".", ".tmp");
+    }
+
+    /**
+     * Substitui o cache pelo arquivo temporário já completo, para que uma gravação
+     * interrompida nunca deixe um cache parcial.
+     */
+    private static void publica(Path temporario, Path cache) throws IOException {
+        try {
+            Files.move(temporario, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temporario, cache, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void gravaCandidatos(Path cache, long[] assinatura, Set<Candidato> candidatos) throws IOException {
+        // Textos repetidos (municípios, siglas) são gravados uma única vez em uma tabela.
+        Map<String, Integer> idsTextos = new HashMap<>();
+        List<String> textos = new ArrayList<>();
+        int[] colunas = new int[candidatos.size() * 10];
+        int i = 0;
+        for (Candidato candidato : candidatos) {
+            colunas[i++] = idTexto(candidato.getCodigoMunicipio(), idsTextos, textos);
+            colunas[i++] = candidato.getCargo() != null ? candidato.getCargo().getCodigo() : -1;
+            colunas[i++] = candidato.getNumero();
+            colunas[i++] = idTexto(candidato.getNomeUrna(), idsTextos, textos);
+            colunas[i++] = candidato.getPartido().getNumero();
+            colunas[i++] = idTexto(candidato.getPartido().getSigla(), idsTextos, textos);
+            colunas[i++] = candidato.getNumFederacao();
+            colunas[i++] = candidato.getDiaNascimento();
+            colunas[i++] = candidato.getSituacao().getCodigo();
+            colunas[i++] = candidato.getGenero().getCodigo();
+        }
+
+        Path temporario = criaTemporario(cache);
+        try {
+            try (DataOutputStream out = criaSaida(temporario, TIPO_CANDIDATOS, assinatura, TODOS_MUNICIPIOS)) {
+                escreveTextos(out, textos);
+                out.writeInt(candidatos.size());
+                for (int coluna : colunas) {
+                    out.writeInt(coluna);
+                }
+            }
+            publica(temporario, cache);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    private static Set<Candidato> leCandidatos(ByteBuffer in) {
+        String[] textos = leTextos(in);
+        int numCandidatos = leTamanho(in, 10 * Integer.BYTES);
+        Set<Candidato> candidatos = new HashSet<>(numCandidatos * 2);
+        // Como no CandidatoReader, cada município e cada partido são resolvidos uma única vez.
+        int[] idsMunicipio = new int[textos.length];
+        Arrays.fill(idsMunicipio, -1);
+        Map<Integer, Partido> partidos = new HashMap<>();
+
+        for (int i = 0; i < numCandidatos; i++) {
+            int idTextoMunicipio = in.getInt();
+            if (idsMunicipio[idTextoMunicipio] < 0) {
+                idsMunicipio[idTextoMunicipio] = Dicionario.MUNICIPIOS.getId(textos[idTextoMunicipio]);
+            }
+            Cargo cargo = Cargo.valueOfCodigo(in.getInt());
+            int numero = in.getInt();
+            String nomeUrna = textos[in.getInt()];
+            int numeroPartido = in.getInt();
+            String siglaPartido = textos[in.getInt()];
+            Partido partido = partidos.computeIfAbsent(numeroPartido, n -> new Partido(n, siglaPartido));
+            int numFederacao = in.getInt();
+            int diaNascimento = in.getInt();
+            Situacao situacao = Situacao.valueOfCodigo(in.getInt());
+            Genero genero = Genero.valueOfCodigo(in.getInt());
+
+            candidatos.add(new Candidato(
+                idsMunicipio[idTextoMunicipio], cargo, numero,
+                nomeUrna, partido, numFederacao,
+                diaNascimento, situacao, genero
+            ));
+        }
+        verificaFim(in);
+        return candidatos;
+    }
+
+    private static void gravaVotos(Path cache, long[] assinatura, String escopo, AcumuladorVotos contagem)
+            throws IOException {
+        List<String> municipios = contagem.getMunicipios();
+
+        Path temporario = criaTemporario(cache);
+        try {
+            try (DataOutputStream out = criaSaida(temporario, TIPO_VOTOS, assinatura, escopo)) {
+                out.writeLong(contagem.getNumLinhas());
+                out.writeLong(contagem.getNumLinhasFiltradasCargo());
+                escreveTextos(out, municipios);
+                for (String municipio : municipios) {
+                    int idMunicipio = Dicionario.MUNICIPIOS.findId(municipio);
+                    out.writeInt(contagem.getNumEntradas(idMunicipio));
+                    IOException[] erro = new IOException[1];
+                    contagem.forEachEntrada(idMunicipio, (chave, quantidade) -> {
+                        try {
+                            out.writeInt(chave);
+                            out.writeInt(quantidade);
+                        } catch (IOException e) {
+                            erro[0] = e;
+                        }
+                    });
+                    if (erro[0] != null) {
+                        throw erro[0];
+                    }
+                }
+            }
+            publica(temporario, cache);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    private static AcumuladorVotos leVotos(ByteBuffer in) {
+        AcumuladorVotos contagem = new AcumuladorVotos();
+        contagem.adicionaLinhas(in.getLong(), in.getLong());
+        for (String municipio : leTextos(in)) {
+            int idMunicipio = Dicionario.MUNICIPIOS.getId(municipio);
+            int numEntradas = leTamanho(in, 2 * Integer.BYTES);
+            for (int i = 0; i < numEntradas; i++) {
+                contagem.adicionaEntrada(idMunicipio, in.getInt(), in.getInt());
+            }
+        }
+        verificaFim(in);
+        return contagem;
+    }
+
+    private static int idTexto(String texto, Map<String, Integer> ids, List<String> textos) {
+        Integer id = ids.get(texto);
+        if (id == null) {
+            id = textos.size();
+            ids.put(texto, id);
+            textos.add(texto);
+        }
+        return id;
+    }
+
+    private static void escreveTextos(DataOutputStream out, List<String> textos) throws IOException {
+        out.writeInt(textos.size());
+        for (String texto : textos) {
+            escreveTexto(out, texto);
+        }
+    }
+
+    private static void escreveTexto(DataOutputStream out, String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.ISO_8859_1);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String[] leTextos(ByteBuffer in) {
+        String[] textos = new String[leTamanho(in, Integer.BYTES)];
+        for (int i = 0; i < textos.length; i++) {
+            textos[i] = leTexto(in);
+        }
+        return textos;
+    }
+
+    private static String leTexto(ByteBuffer in) {
+        byte[] bytes = new byte[leTamanho(in, 1)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Lê a quantidade de itens de uma seção do cache, verificando se cabe no que resta dele.
+     *
+     * @param tamanhoItem número mínimo de bytes de cada item
+     * @throws IllegalStateException se a quantidade for negativa ou maior que o restante do cache
+     */
+    private static int leTamanho(ByteBuffer in, int tamanhoItem) {
+        int quantidade = in.getInt();
+        if (quantidade < 0 || (long) quantidade * tamanhoItem > in.remaining()) {
+            throw new IllegalStateException("Cache corrompido: seção com " + quantidade + " itens");
+        }
+        return quantidade;
+    }
+
+    private static void verificaFim(ByteBuffer in) {
+        if (in.hasRemaining()) {
+            throw new IllegalStateException("Cache corrompido: " + in.remaining() + " bytes após os dados");
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package io;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -13,13 +11,15 @@ import domain.Partido;
 import enums.Cargo;
 import enums.Genero;
 import enums.Situacao;
+import util.CSVTokenizer;
 import util.CSVUtil;
+import util.Metricas;
+import util.ProjecaoCSV;
 
 /**
  * Leitor de candidatos a partir de arquivo CSV.
  */
 public class CandidatoReader {
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     /**
      * Lê os candidatos de um arquivo CSV e retorna um conjunto de candidatos.
@@ -29,18 +29,19 @@ public class CandidatoReader {
      */
     public static Set<Candidato> readCandidatos(String filePath) {
         Set<Candidato> candidatos = new HashSet<>();
+        Map<Integer, Partido> partidos = new HashMap<>();
 
-        try (BufferedReader br = CSVUtil.getReader(filePath)) {
-            String line = br.readLine();
-            Map<String, Integer> headerIndexMap = CSVUtil.parseHeader(line);
+        try (CSVTokenizer tokenizer = CSVUtil.getTokenizer(filePath)) {
+            Colunas colunas = new Colunas(CSVUtil.parseHeader(tokenizer));
+            ResolvedorMunicipio municipios = new ResolvedorMunicipio(colunas.codigoMunicipio);
+            colunas.projecao.aplica(tokenizer);
             
-            while ((line = br.readLine()) != null) {
-                String[] fields = line.split(";");
-                CSVUtil.cleanFields(fields);
-                Candidato candidato = parseCandidato(headerIndexMap, fields);
+            while (tokenizer.nextLine()) {
+                Candidato candidato = parseCandidato(colunas, tokenizer, municipios, partidos);
                 
                 candidatos.add(candidato);
             }
+            Metricas.adiciona(Metricas.Contador.LINHAS_CANDIDATOS, candidatos.size());
         } catch (IOException e) {
             System.err.println("Erro ao ler arquivo de candidatos: " + e.getMessage());
         }
@@ -49,29 +50,66 @@ public class CandidatoReader {
     }
 
     /**
-     * Processa uma linha de dados do CSV criando um objeto Candidato.
+     * Processa a linha atual do CSV criando um objeto Candidato. O município é resolvido
+     * direto para o id no dicionário, e o partido é procurado pelo número entre os já lidos,
+     * de modo que cada partido do arquivo tenha uma única instância e uma única sigla.
      *
-     * @param headerIndexMap o mapeamento de cabeçalhos para índice
-     * @param fields os campos da linha
+     * @param colunas índices das colunas utilizadas
+     * @param tokenizer tokenizador posicionado na linha
+     * @param municipios resolvedor dos ids de município
+     * @param partidos partidos já lidos, por número
      * @return um objeto Candidato
      */
-    private static Candidato parseCandidato(Map<String, Integer> headerIndexMap, String[] fields) {
-        String codigoMunicipio = fields[headerIndexMap.get("SG_UE")];
-        Cargo cargo = Cargo.valueOfCodigo(Integer.parseInt(fields[headerIndexMap.get("CD_CARGO")]));
-        int numero = Integer.parseInt(fields[headerIndexMap.get("NR_CANDIDATO")]);
-        String nomeUrna = fields[headerIndexMap.get("NM_URNA_CANDIDATO")];
-        Partido partido = new Partido(
-            Integer.parseInt(fields[headerIndexMap.get("NR_PARTIDO")]), 
-            fields[headerIndexMap.get("SG_PARTIDO")]);
-        int numFederacao = Integer.parseInt(fields[headerIndexMap.get("NR_FEDERACAO")]);
-        LocalDate dataNascimento = LocalDate.parse(fields[headerIndexMap.get("DT_NASCIMENTO")], DATE_FORMATTER);
-        Situacao situacao = Situacao.valueOfCodigo(Integer.parseInt(fields[headerIndexMap.get("CD_SIT_TOT_TURNO")]));
-        Genero genero = Genero.valueOfCodigo(Integer.parseInt(fields[headerIndexMap.get("CD_GENERO")]));
+    private static Candidato parseCandidato(Colunas colunas, CSVTokenizer tokenizer,
+            ResolvedorMunicipio municipios, Map<Integer, Partido> partidos) {
+        int idMunicipio = municipios.idMunicipio(tokenizer);
+        Cargo cargo = Cargo.valueOfCodigo(tokenizer.getInt(colunas.cargo));
+        int numero = tokenizer.getInt(colunas.numero);
+        String nomeUrna = tokenizer.getString(colunas.nomeUrna);
+        Partido partido = partidos.computeIfAbsent(tokenizer.getInt(colunas.numeroPartido),
+            numeroPartido -> new Partido(numeroPartido, tokenizer.getString(colunas.siglaPartido)));
+        int numFederacao = tokenizer.getInt(colunas.numFederacao);
+        int diaNascimento = (int) tokenizer.getData(colunas.dataNascimento).toEpochDay();
+        Situacao situacao = Situacao.valueOfCodigo(tokenizer.getInt(colunas.situacao));
+        Genero genero = Genero.valueOfCodigo(tokenizer.getInt(colunas.genero));
       
         return new Candidato(
-            codigoMunicipio, cargo, numero, 
+            idMunicipio, cargo, numero, 
             nomeUrna, partido, numFederacao, 
-            dataNascimento, situacao, genero
+            diaNascimento, situacao, genero
         );
     }
+
+    /**
+     * Colunas do arquivo de candidatos utilizadas pelo leitor, resolvidas uma única vez a partir
+     * do cabeçalho. Nenhuma linha é filtrada na leitura, pois os partidos de todos os candidatos
+     * são cadastrados na eleição.
+     */
+    private static class Colunas {
+        final int codigoMunicipio;
+        final int cargo;
+        final int numero;
+        final int nomeUrna;
+        final int numeroPartido;
+        final int siglaPartido;
+        final int numFederacao;
+        final int dataNascimento;
+        final int situacao;
+        final int genero;
+        final ProjecaoCSV projecao;
+
+        Colunas(Map<String, Integer> headerIndexMap) throws IOException {
+            projecao = new ProjecaoCSV(headerIndexMap);
+            codigoMunicipio = projecao.coluna("SG_UE");
+            cargo = projecao.coluna("CD_CARGO");
+            numero = projecao.coluna("NR_CANDIDATO");
+            nomeUrna = projecao.coluna("NM_URNA_CANDIDATO");
+            numeroPartido = projecao.coluna("NR_PARTIDO");
+            siglaPartido = projecao.coluna("SG_PARTIDO");
+            numFederacao = projecao.coluna("NR_FEDERACAO");
+            dataNascimento = projecao.coluna("DT_NASCIMENTO");
+            situacao = projecao.coluna("CD_SIT_TOT_TURNO");
+            genero = projecao.coluna("CD_GENERO");
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package io;
+
+import util.CSVTokenizer;
+import util.Dicionario;
+
+/**
+ * Resolve o id do município das linhas lidas, criando a String do código apenas quando
+ * o município muda em relação à linha anterior: as linhas do TSE vêm agrupadas por município.
+ */
+class ResolvedorMunicipio {
+    private final int coluna;
+    private byte[] ultimoMunicipio;
+    private int ultimoIdMunicipio = -1;
+
+    /**
+     * @param coluna índice da coluna do código do município
+     */
+    ResolvedorMunicipio(int coluna) {
+        this.coluna = coluna;
+    }
+
+    /**
+     * Resolve o id do município da linha atual.
+     *
+     * @param linha tokenizador posicionado na linha
+     * @return id do município em {@link Dicionario#MUNICIPIOS}
+     */
+    int idMunicipio(CSVTokenizer linha) {
+        if (ultimoMunicipio == null || !linha.campoIgual(coluna, ultimoMunicipio)) {
+            ultimoMunicipio = linha.getBytes(coluna);
+            ultimoIdMunicipio = Dicionario.MUNICIPIOS.getId(linha.getString(coluna));
+        }
+        return ultimoIdMunicipio;
+    }
+}
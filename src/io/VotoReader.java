@@ -1,23 +1,45 @@
 package io;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
+import domain.LoteVotos;
 import domain.Voto;
 import enums.Cargo;
+import util.ByteBufferInputStream;
+import util.CSVTokenizer;
 import util.CSVUtil;
+import util.FiltroCSV;
+import util.Metricas;
+import util.ProjecaoCSV;
 
 /**
  * Leitor de votos a partir de arquivo CSV.
  */
 public class VotoReader {
+    private static final long TAMANHO_MINIMO_TRECHO = 8L << 20;
+    private static final long TAMANHO_MAXIMO_TRECHO = 1L << 30;
 
     /**
      * Lê os votos de um arquivo CSV e retorna um conjunto de votos
      * filtrados pelo código do município.
+     * <p>
+     * As linhas são somadas durante a leitura, então o conjunto tem um voto por município,
+     * cargo e número votável, com a quantidade total, e não um voto por seção.
      *
      * @param filePath o caminho do arquivo CSV
      * @param codigoMunicipio o código do município a ser filtrado
@@ -25,43 +47,370 @@ public class VotoReader {
      */
     public static Set<Voto> readVotos(String filePath, String codigoMunicipio) {
         Set<Voto> votos = new HashSet<>();
+        AcumuladorVotos contagem = contaVotos(filePath, codigoMunicipio);
+        if (codigoMunicipio != null) {
+            contagem.emite(codigoMunicipio, votos::add);
+        } else {
+            contagem.emite(votos::add);
+        }
+        return votos;
+    }
+
+    /**
+     * Lê os votos de um arquivo CSV em sequência, somando as linhas durante a leitura em uma
+     * contagem por município, cargo e número votável. O arquivo de votos tem uma linha por
+     * seção, então cada número votável se repete em milhares de linhas; a contagem tem uma
+     * entrada por número, e candidatos e partidos são buscados uma única vez por número.
+     *
+     * @param filePath o caminho do arquivo CSV, compactado ou não
+     * @param codigoMunicipio o código do município a ser filtrado, ou null para todos
+     * @return a contagem dos votos lidos
+     */
+    public static AcumuladorVotos contaVotos(String filePath, String codigoMunicipio) {
+        try (CSVTokenizer tokenizer = CSVUtil.getTokenizer(filePath)) {
+            Colunas colunas = new Colunas(CSVUtil.parseHeader(tokenizer), codigoMunicipio);
+            return conta(tokenizer, colunas);
+        } catch (IOException e) {
+            System.err.println("Erro ao ler arquivo de votos: " + e.getMessage());
+            return new AcumuladorVotos();
+        }
+    }
 
-        try (BufferedReader br = CSVUtil.getReader(filePath)) {
-            String line = br.readLine();
-            Map<String, Integer> headerIndexMap = CSVUtil.parseHeader(line);
+    /**
+     * Lê os votos de um arquivo CSV em modo streaming, repassando cada voto do
+     * município ao consumidor assim que a linha é processada. Nenhum voto é
+     * mantido em memória pelo leitor.
+     *
+     * @param filePath o caminho do arquivo CSV
+     * @param codigoMunicipio o código do município a ser filtrado, ou null para todos
+     * @param consumidor destino de cada voto lido
+     */
+    public static void readVotos(String filePath, String codigoMunicipio, Consumer<Voto> consumidor) {
+        try (CSVTokenizer tokenizer = CSVUtil.getTokenizer(filePath)) {
+            Colunas colunas = new Colunas(CSVUtil.parseHeader(tokenizer), codigoMunicipio);
+            LinhasLidas linhas = new LinhasLidas(colunas);
+            colunas.projecao.aplica(tokenizer);
 
-            while ((line = br.readLine()) != null) {
-                String[] fields = line.split(";");
-                CSVUtil.cleanFields(fields);
-                Voto voto = parseVoto(headerIndexMap, fields, codigoMunicipio);
+            while (tokenizer.nextLine()) {
+                Voto voto = parseVoto(colunas, tokenizer, codigoMunicipio, linhas);
                 
-                if (voto != null) votos.add(voto);
+                if (voto != null) consumidor.accept(voto);
             }
+            linhas.publica();
         } catch (IOException e) {
             System.err.println("Erro ao ler arquivo de votos: " + e.getMessage());
         }
+    }
 
-        return votos;
+    /**
+     * Lê os votos de um arquivo CSV em modo streaming, preenchendo lotes colunares em vez de
+     * criar um objeto {@link Voto} por linha. Cada lote é repassado ao consumidor quando enche
+     * e depois reaproveitado, então o consumidor deve processá-lo antes de retornar.
+     *
+     * @param filePath o caminho do arquivo CSV
+     * @param codigoMunicipio o código do município a ser filtrado, ou null para todos
+     * @param consumidor destino de cada lote de votos lido
+     */
+    public static void readLotes(String filePath, String codigoMunicipio, Consumer<LoteVotos> consumidor) {
+        LoteVotos lote = new LoteVotos();
+
+        try (CSVTokenizer tokenizer = CSVUtil.getTokenizer(filePath)) {
+            Colunas colunas = new Colunas(CSVUtil.parseHeader(tokenizer), codigoMunicipio);
+            ResolvedorMunicipio municipios = new ResolvedorMunicipio(colunas.codigoMunicipio);
+            LinhasLidas linhas = new LinhasLidas(colunas);
+            colunas.projecao.aplica(tokenizer);
+
+            while (tokenizer.nextLine()) {
+                if (!linhas.aceita(tokenizer)) {
+                    continue;
+                }
+                lote.adiciona(
+                    municipios.idMunicipio(tokenizer),
+                    tokenizer.getInt(colunas.cargo),
+                    tokenizer.getInt(colunas.numVotavel),
+                    tokenizer.getInt(colunas.quantidade));
+
+                if (lote.isCheio()) {
+                    consumidor.accept(lote);
+                    lote.limpa();
+                }
+            }
+            linhas.publica();
+        } catch (IOException e) {
+            System.err.println("Erro ao ler arquivo de votos: " + e.getMessage());
+        }
+
+        if (lote.size() > 0) {
+            consumidor.accept(lote);
+        }
+    }
+
+    /**
+     * Lê os votos de um arquivo CSV em paralelo. O arquivo é mapeado em memória e dividido
+     * em trechos alinhados a quebras de linha; cada trecho é processado por uma thread em
+     * uma contagem parcial própria, e as contagens são combinadas ao final.
+     * <p>
+     * O consumidor recebe, na thread chamadora, um voto por cargo e número votável com a
+     * soma das quantidades, o que produz o mesmo resultado de contagem da leitura sequencial.
+     *
+     * @param filePath o caminho do arquivo CSV
+     * @param codigoMunicipio o código do município a ser filtrado, ou null para todos
+     * @param consumidor destino dos votos agregados
+     * @param numThreads número de threads de leitura
+     */
+    public static void readVotosParalelo(String filePath, String codigoMunicipio, Consumer<Voto> consumidor,
+            int numThreads) {
+        contaVotos(filePath, codigoMunicipio, numThreads).emite(consumidor);
+    }
+
+    /**
+     * Lê os votos de um arquivo CSV em paralelo, como em
+     * {@link #readVotosParalelo(String, String, Consumer, int)}, e retorna a contagem
+     * por município, cargo e número votável.
+     * <p>
+     * Arquivos compactados não podem ser divididos em trechos, e são lidos em sequência por
+     * {@link #contaVotos(String, String)} enquanto a descompressão ocorre em outra thread.
+     *
+     * @param filePath o caminho do arquivo CSV
+     * @param codigoMunicipio o código do município a ser filtrado, ou null para todos
+     * @param numThreads número de threads de leitura
+     * @return a contagem dos votos lidos
+     */
+    public static AcumuladorVotos contaVotos(String filePath, String codigoMunicipio, int numThreads) {
+        return contaVotos(filePath, codigoMunicipio, numThreads, 0);
     }
 
     /**
-     * Processa uma linha de dados do CSV e cria um objeto Voto.
+     * Lê os votos de um arquivo CSV em paralelo, como em {@link #contaVotos(String, String, int)},
+     * com o tamanho dos trechos informado.
      *
-     * @param headerIndexMap mapeamento de cabeçalhos para índice
-     * @param fields os campos da linha
-     * @param codigoMunicipio o código do município para validação
-     * @return um objeto Voto ou null se o município não coincidir
+     * @param filePath o caminho do arquivo CSV
+     * @param codigoMunicipio o código do município a ser filtrado, ou null para todos
+     * @param numThreads número de threads de leitura
+     * @param tamanhoTrecho tamanho aproximado de cada trecho em bytes, ou 0 para calculá-lo
+     *     pelo tamanho do arquivo e pelo número de threads
+     * @return a contagem dos votos lidos
      */
-    private static Voto parseVoto(Map<String, Integer> headerIndexMap, String[] fields, String codigoMunicipio) {
-        Cargo cargo = Cargo.valueOfCodigo(Integer.parseInt(fields[headerIndexMap.get("CD_CARGO")]));
-        String cdgMunicipio = fields[headerIndexMap.get("CD_MUNICIPIO")];
-        int numVotavel = Integer.parseInt(fields[headerIndexMap.get("NR_VOTAVEL")]);
-        int quantidade = Integer.parseInt(fields[headerIndexMap.get("QT_VOTOS")]);
+    static AcumuladorVotos contaVotos(String filePath, String codigoMunicipio, int numThreads, long tamanhoTrecho) {
+        if (CSVUtil.isCompactado(filePath)) {
+            return contaVotos(filePath, codigoMunicipio);
+        }
+
+        AcumuladorVotos total = new AcumuladorVotos();
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+        try (FileChannel canal = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long inicioDados = fimDaLinha(canal, 0);
+            Colunas colunas;
+            try (CSVTokenizer tokenizer = new CSVTokenizer(
+                    new ByteBufferInputStream(canal.map(FileChannel.MapMode.READ_ONLY, 0, inicioDados)))) {
+                colunas = new Colunas(CSVUtil.parseHeader(tokenizer), codigoMunicipio);
+            }
+
+            List<Future<AcumuladorVotos>> parciais = new ArrayList<>();
+            for (long[] trecho : divideEmTrechos(canal, inicioDados, numThreads, tamanhoTrecho)) {
+                MappedByteBuffer regiao = canal.map(FileChannel.MapMode.READ_ONLY, trecho[0], trecho[1] - trecho[0]);
+                parciais.add(executor.submit(() -> leTrecho(regiao, colunas)));
+            }
 
-        if (!cdgMunicipio.equals(codigoMunicipio)) {
+            for (Future<AcumuladorVotos> parcial : parciais) {
+                total.combina(parcial.get());
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao ler arquivo de votos: " + e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            System.err.println("Erro ao ler arquivo de votos: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return total;
+    }
+
+    /**
+     * Processa um trecho do arquivo mapeado em uma contagem parcial.
+     *
+     * @param regiao trecho do arquivo, começando e terminando em limites de linha
+     * @param colunas colunas utilizadas e filtros das linhas
+     * @return a contagem parcial do trecho
+     * @throws IOException se ocorrer erro na leitura
+     */
+    private static AcumuladorVotos leTrecho(ByteBuffer regiao, Colunas colunas) throws IOException {
+        try (CSVTokenizer tokenizer = new CSVTokenizer(new ByteBufferInputStream(regiao))) {
+            return conta(tokenizer, colunas);
+        }
+    }
+
+    /**
+     * Conta os votos das linhas restantes do tokenizador.
+     *
+     * @param tokenizer tokenizador posicionado após o cabeçalho
+     * @param colunas colunas utilizadas e filtros das linhas
+     * @return a contagem dos votos lidos
+     * @throws IOException se ocorrer erro na leitura
+     */
+    private static AcumuladorVotos conta(CSVTokenizer tokenizer, Colunas colunas) throws IOException {
+        AcumuladorVotos acumulador = new AcumuladorVotos();
+        ResolvedorMunicipio municipios = new ResolvedorMunicipio(colunas.codigoMunicipio);
+        LinhasLidas linhas = new LinhasLidas(colunas);
+
+        colunas.projecao.aplica(tokenizer);
+        while (tokenizer.nextLine()) {
+            if (linhas.aceita(tokenizer)) {
+                acumulador.adiciona(
+                    municipios.idMunicipio(tokenizer),
+                    tokenizer.getInt(colunas.cargo),
+                    tokenizer.getInt(colunas.numVotavel),
+                    tokenizer.getInt(colunas.quantidade));
+            }
+        }
+        linhas.publica();
+        acumulador.adicionaLinhas(linhas.lidas, linhas.filtradasCargo);
+        return acumulador;
+    }
+
+    /**
+     * Divide o arquivo em trechos [início, fim) que terminam logo após uma quebra de linha.
+     *
+     * @param canal canal do arquivo
+     * @param inicio posição da primeira linha de dados
+     * @param numThreads número de threads que irão processar os trechos
+     * @param tamanhoTrecho tamanho aproximado de cada trecho, ou 0 para calculá-lo
+     * @return lista de trechos
+     * @throws IOException se ocorrer erro na leitura
+     */
+    private static List<long[]> divideEmTrechos(FileChannel canal, long inicio, int numThreads, long tamanhoTrecho)
+            throws IOException {
+        long tamanhoArquivo = canal.size();
+        if (tamanhoTrecho <= 0) {
+            tamanhoTrecho = (tamanhoArquivo - inicio) / (numThreads * 4L) + 1;
+            tamanhoTrecho = Math.max(TAMANHO_MINIMO_TRECHO, Math.min(TAMANHO_MAXIMO_TRECHO, tamanhoTrecho));
+        }
+
+        List<long[]> trechos = new ArrayList<>();
+        while (inicio < tamanhoArquivo) {
+            long fim = inicio + tamanhoTrecho;
+            fim = fim >= tamanhoArquivo ? tamanhoArquivo : fimDaLinha(canal, fim - 1);
+            trechos.add(new long[] { inicio, fim });
+            inicio = fim;
+        }
+        return trechos;
+    }
+
+    /**
+     * Encontra a posição logo após a primeira quebra de linha a partir de uma posição.
+     *
+     * @param canal canal do arquivo
+     * @param posicao posição inicial da busca
+     * @return posição seguinte à quebra de linha, ou o tamanho do arquivo se não houver
+     * @throws IOException se ocorrer erro na leitura
+     */
+    private static long fimDaLinha(FileChannel canal, long posicao) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (true) {
+            buffer.clear();
+            int lidos = canal.read(buffer, posicao);
+            if (lidos <= 0) {
+                return canal.size();
+            }
+            for (int i = 0; i < lidos; i++) {
+                if (buffer.get(i) == '\n') {
+                    return posicao + i + 1;
+                }
+            }
+            posicao += lidos;
+        }
+    }
+
+    /**
+     * Processa a linha atual do CSV e cria um objeto Voto. Os filtros de município e cargo
+     * são avaliados sobre os bytes da linha antes de qualquer conversão.
+     *
+     * @param colunas colunas utilizadas e filtros das linhas
+     * @param tokenizer tokenizador posicionado na linha
+     * @param codigoMunicipio o código do município dos votos, ou null para todos
+     * @param linhas contagem das linhas lidas e filtradas
+     * @return um objeto Voto ou null se a linha não atender aos filtros
+     */
+    private static Voto parseVoto(Colunas colunas, CSVTokenizer tokenizer, String codigoMunicipio,
+            LinhasLidas linhas) {
+        if (!linhas.aceita(tokenizer)) {
             return null;
         }
+        if (codigoMunicipio == null) {
+            codigoMunicipio = tokenizer.getString(colunas.codigoMunicipio);
+        }
+
+        Cargo cargo = Cargo.valueOfCodigo(tokenizer.getInt(colunas.cargo));
+        int numVotavel = tokenizer.getInt(colunas.numVotavel);
+        int quantidade = tokenizer.getInt(colunas.quantidade);
 
         return new Voto(cargo, codigoMunicipio, numVotavel, quantidade);
     }
+
+    /**
+     * Colunas do arquivo de votos utilizadas pelo leitor, resolvidas uma única vez a partir
+     * do cabeçalho, e os filtros das linhas: primeiro o município, comparado byte a byte
+     * (quando informado), depois o cargo, descartando os que não são conhecidos.
+     */
+    private static class Colunas {
+        final int cargo;
+        final int codigoMunicipio;
+        final int numVotavel;
+        final int quantidade;
+        final ProjecaoCSV projecao;
+        final int filtroMunicipio;
+        final int filtroCargo;
+
+        Colunas(Map<String, Integer> headerIndexMap, String municipio) throws IOException {
+            projecao = new ProjecaoCSV(headerIndexMap);
+            cargo = projecao.coluna("CD_CARGO");
+            codigoMunicipio = projecao.coluna("CD_MUNICIPIO");
+            numVotavel = projecao.coluna("NR_VOTAVEL");
+            quantidade = projecao.coluna("QT_VOTOS");
+
+            filtroMunicipio = municipio != null ? projecao.filtro(FiltroCSV.igual(codigoMunicipio, municipio)) : -1;
+            filtroCargo = projecao.filtro(FiltroCSV.inteiro(cargo, codigo -> Cargo.valueOfCodigo(codigo) != null));
+        }
+    }
+
+    /**
+     * Contagem local das linhas lidas e das descartadas por cada filtro, somada às
+     * {@link Metricas} uma única vez ao final da leitura de cada arquivo ou trecho.
+     */
+    private static class LinhasLidas {
+        final Colunas colunas;
+        long lidas;
+        long filtradasMunicipio;
+        long filtradasCargo;
+
+        LinhasLidas(Colunas colunas) {
+            this.colunas = colunas;
+        }
+
+        boolean aceita(CSVTokenizer tokenizer) {
+            lidas++;
+            int filtro = colunas.projecao.recusa(tokenizer);
+            if (filtro < 0) {
+                return true;
+            }
+            if (filtro == colunas.filtroMunicipio) {
+                filtradasMunicipio++;
+            } else if (filtro == colunas.filtroCargo) {
+                filtradasCargo++;
+            }
+            return false;
+        }
+
+        void publica() {
+            Metricas.adiciona(Metricas.Contador.LINHAS_VOTOS, lidas);
+            Metricas.adiciona(Metricas.Contador.LINHAS_FILTRADAS_MUNICIPIO, filtradasMunicipio);
+            Metricas.adiciona(Metricas.Contador.LINHAS_FILTRADAS_CARGO, filtradasCargo);
+        }
+    }
 }
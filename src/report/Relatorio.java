@@ -1,7 +1,16 @@
 package report;
 
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.text.NumberFormat;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -9,38 +18,108 @@ import java.util.Locale;
 
 import domain.Candidato;
 import domain.Eleicao;
-import domain.Partido;
+import domain.ResultadoCandidato;
+import domain.ResultadoEleicao;
+import domain.ResultadoPartido;
 import enums.Genero;
 import util.CandidatoFormatter;
+import util.Metricas;
 import util.PartidoFormatter;
 
 /**
  * Responsável por gerar e imprimir diversos relatórios referentes à eleição.
+ * Todos os relatórios são gerados a partir de um único {@link ResultadoEleicao},
+ * calculado uma vez após a contagem dos votos.
+ * <p>
+ * Os relatórios são escritos em um Writer com buffer (a saída padrão, um arquivo ou um
+ * buffer em memória), que só é descarregado por {@link #flush()} ou ao final de
+ * {@link #imprimeTodos(LocalDate)}.
  */
 public class Relatorio {
-    Eleicao eleicao;
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    ResultadoEleicao resultado;
+    PrintWriter saida;
 
     public Relatorio(Eleicao eleicao) {
-        this.eleicao = eleicao;
+        this(eleicao.getResultado());
+    }
+
+    public Relatorio(ResultadoEleicao resultado) {
+        this(resultado, saidaPadrao());
+    }
+
+    public Relatorio(ResultadoEleicao resultado, Writer saida) {
+        this.resultado = resultado;
+        this.saida = saida instanceof PrintWriter
+            ? (PrintWriter) saida
+            : new PrintWriter(saida instanceof BufferedWriter ? saida : new BufferedWriter(saida, TAMANHO_BUFFER));
+    }
+
+    /**
+     * Cria um Writer com buffer sobre a saída padrão, usando a mesma codificação de System.out.
+     * Nada é escrito na saída padrão até que o Writer seja descarregado. A escrita é feita
+     * direto no descritor da saída padrão, e não por System.out, que descarta os erros de
+     * escrita, para que uma falha chegue até quem descarrega o Writer.
+     *
+     * @return Writer para a saída padrão
+     */
+    public static Writer saidaPadrao() {
+        // Em Java 17, System.out usa sun.stdout.encoding quando a saída é um terminal.
+        String codificacao = System.getProperty("sun.stdout.encoding");
+        Charset charset = codificacao != null ? Charset.forName(codificacao) : Charset.defaultCharset();
+        OutputStream saida = new FileOutputStream(FileDescriptor.out);
+        return new BufferedWriter(new OutputStreamWriter(saida, charset), TAMANHO_BUFFER);
+    }
+
+    /**
+     * Descarrega na saída tudo o que foi impresso até o momento. Como o PrintWriter não lança
+     * exceções, uma falha de escrita é verificada aqui e informada na saída de erro.
+     */
+    public void flush() {
+        saida.flush();
+        if (saida.checkError()) {
+            System.err.println("Erro ao escrever o relatório");
+        }
+    }
+
+    /**
+     * Imprime todos os relatórios da eleição, na ordem em que são apresentados. O tempo de
+     * cada seção é registrado nas {@link Metricas}.
+     *
+     * @param dataEleicao data da eleição para cálculo da idade dos eleitos
+     */
+    public void imprimeTodos(LocalDate dataEleicao) {
+        Metricas.mede("relatorio.numVagas", this::imprimeNumVagas);
+        Metricas.mede("relatorio.vereadoresEleitos", this::imprimeVereadoresEleitos);
+        Metricas.mede("relatorio.candidatosMaisVotados", this::imprimeCandidatosMaisVotados);
+        Metricas.mede("relatorio.candidatosNaoEleitos", this::imprimeCandidatosNaoEleitos);
+        Metricas.mede("relatorio.candidatosBeneficiados", this::imprimeCandidatosBeneficiados);
+        Metricas.mede("relatorio.rankingPartidos", this::imprimeRankingPartidos);
+        Metricas.mede("relatorio.primeiroUltimoCandidatoPorPartido", this::imprimePrimeiroUltimoCandidatoPorPartido);
+        Metricas.mede("relatorio.distribuicaoFaixaEtaria", () -> imprimeDistribuicaoFaixaEtaria(dataEleicao));
+        Metricas.mede("relatorio.distribuicaoGenero", this::imprimeDistribuicaoGenero);
+        Metricas.mede("relatorio.totalVotos", this::imprimeTotalVotos);
+        Metricas.mede("relatorio.escrita", this::flush);
     }
 
     /**
      * Imprime o número de vagas disponíveis.
      */
     public void imprimeNumVagas() {
-        System.out.println("Número de vagas: " + eleicao.getNumVagas() + "\n");
+        saida.println("Número de vagas: " + resultado.getNumVagas() + "\n");
     }
 
     /**
      * Imprime os vereadores eleitos.
      */
     public void imprimeVereadoresEleitos() {
-        System.out.println("Vereadores eleitos:");
+        saida.println("Vereadores eleitos:");
 
         int index = 0;
-        for (Candidato candidato : eleicao.getCandidatosEleitos()) {
+        for (ResultadoCandidato candidato : resultado.getEleitos()) {
             String candidatoFormatado = CandidatoFormatter.format(candidato);
-            System.out.println(++index + " - " + candidatoFormatado);
+            saida.println(++index + " - " + candidatoFormatado);
         }
     }
 
@@ -48,16 +127,12 @@ public class Relatorio {
      * Imprime os candidatos mais votados (respeitando o número de vagas).
      */
     public void imprimeCandidatosMaisVotados() {
-        System.out.print("\nCandidatos mais votados ");
-        System.out.println("(em ordem decrescente de votação e respeitando número de vagas):");
+        saida.print("\nCandidatos mais votados ");
+        saida.println("(em ordem decrescente de votação e respeitando número de vagas):");
 
-        int index = 0;
-        for (Candidato candidato : eleicao.getCandidatosMaisVotados()) {
+        for (ResultadoCandidato candidato : resultado.getCandidatosMaisVotados(resultado.getNumVagas())) {
             String candidatoFormatado = CandidatoFormatter.format(candidato);
-            System.out.println(++index + " - " + candidatoFormatado);
-            if (index >= eleicao.getNumVagas()) {
-                break;
-            }
+            saida.println(candidato.getPosicao() + " - " + candidatoFormatado);
         }
     }
 
@@ -65,17 +140,13 @@ public class Relatorio {
      * Imprime os candidatos que não foram eleitos, mas teriam sido majoritariamente.
      */
     public void imprimeCandidatosNaoEleitos() {
-        System.out.println("\nTeriam sido eleitos se a votação fosse majoritária, e não foram eleitos:");
-        System.out.println("(com sua posição no ranking de mais votados)");
+        saida.println("\nTeriam sido eleitos se a votação fosse majoritária, e não foram eleitos:");
+        saida.println("(com sua posição no ranking de mais votados)");
 
-        int index = 1;
-        for (Candidato candidato : eleicao.getCandidatosMaisVotados()) {
-            if (!eleicao.isEleito(candidato)) {
+        for (ResultadoCandidato candidato : resultado.getCandidatosMaisVotados(resultado.getNumVagas())) {
+            if (!candidato.isEleito()) {
                 String candidatoFormatado = CandidatoFormatter.format(candidato);
-                System.out.println(index + " - " + candidatoFormatado);
-            }
-            if (++index > eleicao.getNumVagas()) {
-                break;
+                saida.println(candidato.getPosicao() + " - " + candidatoFormatado);
             }
         }
     }
@@ -84,20 +155,16 @@ public class Relatorio {
      * Imprime os candidatos eleitos que se beneficiaram do sistema proporcional.
      */
     public void imprimeCandidatosBeneficiados() {
-        System.out.println("\nEleitos, que se beneficiaram do sistema proporcional:");
-        System.out.println("(com sua posição no ranking de mais votados)");
+        saida.println("\nEleitos, que se beneficiaram do sistema proporcional:");
+        saida.println("(com sua posição no ranking de mais votados)");
 
-        List<Candidato> candidatosMaisVotados = eleicao.getCandidatosMaisVotados();
-        Candidato ultimoCandidatoMaisVotado = candidatosMaisVotados.get(eleicao.getNumVagas() - 1);
-        int index = 1;
+        ResultadoCandidato ultimoCandidatoMaisVotado = resultado.getCandidatos().get(resultado.getNumVagas() - 1);
 
-        for (Candidato candidato : candidatosMaisVotados) {
-            if (eleicao.isEleito(candidato) && 
-                candidato.getNumVotos() < ultimoCandidatoMaisVotado.getNumVotos()) {
+        for (ResultadoCandidato candidato : resultado.getEleitos()) {
+            if (candidato.getNumVotos() < ultimoCandidatoMaisVotado.getNumVotos()) {
                 String candidatoFormatado = CandidatoFormatter.format(candidato);
-                System.out.println(index + " - " + candidatoFormatado);
+                saida.println(candidato.getPosicao() + " - " + candidatoFormatado);
             }
-            index++;
         }
     }
 
@@ -105,14 +172,11 @@ public class Relatorio {
      * Imprime o ranking dos partidos de acordo com a votação.
      */
     public void imprimeRankingPartidos() {
-        System.out.println("\nVotação dos partidos e número de candidatos eleitos:");
+        saida.println("\nVotação dos partidos e número de candidatos eleitos:");
 
-        List<Partido> partidos = eleicao.getPartidos();
-        Collections.sort(partidos);
         int index = 0;
-
-        for (Partido partido : partidos) {
-            System.out.println(++index + " - " + PartidoFormatter.format(partido));
+        for (ResultadoPartido partido : resultado.getPartidos()) {
+            saida.println(++index + " - " + PartidoFormatter.format(partido));
         }
     }
 
@@ -120,54 +184,53 @@ public class Relatorio {
      * Imprime o primeiro e o último candidato de cada partido.
      */
     public void imprimePrimeiroUltimoCandidatoPorPartido() {
-        System.out.println("\nPrimeiro e último colocados de cada partido:");
+        saida.println("\nPrimeiro e último colocados de cada partido:");
 
-        List<Partido> partidos = eleicao.getPartidos();
+        List<ResultadoPartido> partidos = new ArrayList<>(resultado.getPartidos());
         sortPartidosPorMaiorCandidato(partidos);
 
         int index = 0;
-        for (Partido partido : partidos) {
-            List<Candidato> candidatosPartido = partido.getCandidatos();
-            
-            if(candidatosPartido.isEmpty() || partido.getNumVotosNominais() <= 0){
+        NumberFormat nf = NumberFormat.getInstance(Locale.forLanguageTag("pt-BR"));
+        for (ResultadoPartido partido : partidos) {
+            if (partido.getCandidatos().isEmpty() || partido.getNumVotosNominais() <= 0) {
                 continue;
             }
 
-            Collections.sort(candidatosPartido);
-            Candidato primeiroColocado = candidatosPartido.get(0);
-            Candidato ultimoColocado = candidatosPartido.get(candidatosPartido.size() - 1);
-            NumberFormat nf = NumberFormat.getInstance(Locale.forLanguageTag("pt-BR"));
+            ResultadoCandidato primeiroColocado = partido.getPrimeiroColocado();
+            ResultadoCandidato ultimoColocado = partido.getUltimoColocado();
+            Candidato primeiro = primeiroColocado.getCandidato();
+            Candidato ultimo = ultimoColocado.getCandidato();
 
-            System.out.print(++index + " - " + partido.getSigla() + " - " + partido.getNumero() + ", ");
-            System.out.printf("%s (%d, %s votos) / %s (%d, %s votos)%n", 
-                primeiroColocado.getNomeUrna(), primeiroColocado.getNumero(), nf.format(primeiroColocado.getNumVotos()),
-                ultimoColocado.getNomeUrna(), ultimoColocado.getNumero(), nf.format(ultimoColocado.getNumVotos()));
+            saida.print(++index + " - " + partido.getPartido().getSigla() + " - " + partido.getPartido().getNumero() + ", ");
+            saida.printf("%s (%d, %s votos) / %s (%d, %s votos)%n", 
+                primeiro.getNomeUrna(), primeiro.getNumero(), nf.format(primeiroColocado.getNumVotos()),
+                ultimo.getNomeUrna(), ultimo.getNumero(), nf.format(ultimoColocado.getNumVotos()));
         }
     }
 
-    private void sortPartidosPorMaiorCandidato(List<Partido> partidos) {
-        Collections.sort(partidos, new Comparator<Partido>() {
+    /**
+     * Ordena os partidos pelo seu candidato mais votado, que já está disponível no resultado
+     * de cada partido; partidos sem candidatos ficam no final.
+     *
+     * @param partidos partidos a serem ordenados
+     */
+    private void sortPartidosPorMaiorCandidato(List<ResultadoPartido> partidos) {
+        Collections.sort(partidos, new Comparator<ResultadoPartido>() {
             @Override
-            public int compare(Partido p1, Partido p2) {
-                List<Candidato> candidatos1 = p1.getCandidatos();
-                List<Candidato> candidatos2 = p2.getCandidatos();
+            public int compare(ResultadoPartido p1, ResultadoPartido p2) {
+                ResultadoCandidato top1 = p1.getPrimeiroColocado();
+                ResultadoCandidato top2 = p2.getPrimeiroColocado();
 
-                if (candidatos1.isEmpty() && candidatos2.isEmpty())
+                if (top1 == null && top2 == null)
                     return 0;
-                if (candidatos1.isEmpty())
+                if (top1 == null)
                     return 1;
-                if (candidatos2.isEmpty())
+                if (top2 == null)
                     return -1;
 
-                Collections.sort(candidatos1);
-                Collections.sort(candidatos2);
-
-                Candidato top1 = candidatos1.get(0);
-                Candidato top2 = candidatos2.get(0);
-
-                int cmp = top1.compareTo(top2);
+                int cmp = ResultadoCandidato.ORDEM.compare(top1, top2);
                 if (cmp == 0) {
-                    cmp = Integer.compare(p1.getNumero(), p2.getNumero());
+                    cmp = Integer.compare(p1.getPartido().getNumero(), p2.getPartido().getNumero());
                 }
                 return cmp;
             }
@@ -180,13 +243,13 @@ public class Relatorio {
      * @param dataEleicao data da eleição para cálculo da idade
      */
     public void imprimeDistribuicaoFaixaEtaria(LocalDate dataEleicao) {
-        System.out.println("\nEleitos, por faixa etária (na data da eleição):");
+        saida.println("\nEleitos, por faixa etária (na data da eleição):");
 
-        List<Candidato> candidatosEleitos = eleicao.getCandidatosEleitos();
+        List<ResultadoCandidato> candidatosEleitos = resultado.getEleitos();
 
         int[] faixasEtarias = new int[5];
-        for (Candidato candidato : candidatosEleitos) {
-            int idade = candidato.getDataNascimento().until(dataEleicao).getYears();
+        for (ResultadoCandidato candidato : candidatosEleitos) {
+            int idade = candidato.getCandidato().getDataNascimento().until(dataEleicao).getYears();
             
             if (idade < 30) {
                 faixasEtarias[0]++;
@@ -215,7 +278,7 @@ public class Relatorio {
 
         for (int i = 0; i < faixasEtarias.length; i++) {
             String percentual = nf.format(faixasEtarias[i] / (double)candidatosEleitos.size());
-            System.out.println(faixas[i] + ": " + faixasEtarias[i] + " (" + percentual + ")");
+            saida.println(faixas[i] + ": " + faixasEtarias[i] + " (" + percentual + ")");
         }
     }
 
@@ -223,14 +286,15 @@ public class Relatorio {
      * Imprime a distribuição dos eleitos por gênero.
      */
     public void imprimeDistribuicaoGenero() {
-        List<Candidato> candidatosEleitos = eleicao.getCandidatosEleitos();
+        List<ResultadoCandidato> candidatosEleitos = resultado.getEleitos();
         int femininoCount = 0;
         int masculinoCount = 0;
 
-        for (Candidato candidato : candidatosEleitos) {
-            if (candidato.getGenero() == Genero.FEMININO) {
+        for (ResultadoCandidato candidato : candidatosEleitos) {
+            Genero genero = candidato.getCandidato().getGenero();
+            if (genero == Genero.FEMININO) {
                 femininoCount++;
-            } else if (candidato.getGenero() == Genero.MASCULINO) {
+            } else if (genero == Genero.MASCULINO) {
                 masculinoCount++;
             }
         }
@@ -242,18 +306,18 @@ public class Relatorio {
         String percentualFeminino = nf.format(femininoCount / (double)candidatosEleitos.size());
         String percentualMasculino = nf.format(masculinoCount / (double)candidatosEleitos.size());
 
-        System.out.println("\nEleitos, por gênero:");
-        System.out.printf("Feminino:  %d (%s)%n", femininoCount, percentualFeminino);  
-        System.out.printf("Masculino: %d (%s)%n", masculinoCount, percentualMasculino);  
+        saida.println("\nEleitos, por gênero:");
+        saida.printf("Feminino:  %d (%s)%n", femininoCount, percentualFeminino);  
+        saida.printf("Masculino: %d (%s)%n", masculinoCount, percentualMasculino);  
     }
 
     /**
      * Imprime o total de votos válidos, nominais e de legenda.
      */
     public void imprimeTotalVotos() {        
-        int totalVotos = eleicao.getTotalVotos();
-        int totalVotosNominais = eleicao.getTotalVotosNominais();
-        int totalVotosLegenda = eleicao.getTotalVotosLegenda();
+        int totalVotos = resultado.getTotalVotos();
+        int totalVotosNominais = resultado.getTotalVotosNominais();
+        int totalVotosLegenda = resultado.getTotalVotosLegenda();
         
         NumberFormat nf = NumberFormat.getInstance(Locale.forLanguageTag("pt-BR"));
         NumberFormat nfPercent = NumberFormat.getPercentInstance(Locale.forLanguageTag("pt-BR"));
@@ -263,9 +327,9 @@ public class Relatorio {
         String percentualVotosNominais = nfPercent.format(totalVotosNominais / (double)totalVotos);
         String percentualVotosLegenda = nfPercent.format(totalVotosLegenda / (double)totalVotos);
 
-        System.out.println();
-        System.out.printf("Total de votos válidos:    %s%n", nf.format(totalVotos));
-        System.out.printf("Total de votos nominais:   %s (%s)%n", nf.format(totalVotosNominais), percentualVotosNominais);
-        System.out.printf("Total de votos de legenda: %s (%s)%n", nf.format(totalVotosLegenda), percentualVotosLegenda);
+        saida.println();
+        saida.printf("Total de votos válidos:    %s%n", nf.format(totalVotos));
+        saida.printf("Total de votos nominais:   %s (%s)%n", nf.format(totalVotosNominais), percentualVotosNominais);
+        saida.printf("Total de votos de legenda: %s (%s)%n", nf.format(totalVotosLegenda), percentualVotosLegenda);
     }
 }
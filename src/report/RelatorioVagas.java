@@ -0,0 +1,131 @@
+package report;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import domain.Candidato;
+import domain.Eleicao;
+import domain.ResultadoCandidato;
+import domain.ResultadoSimulacao;
+import domain.ResultadoVagas;
+import util.CandidatoFormatter;
+
+/**
+ * Relatório da distribuição das vagas calculada por {@link services.DistribuicaoVagas}:
+ * quocientes, eleitos pelo cálculo e as diferenças em relação aos eleitos informados no
+ * arquivo de candidatos.
+ */
+public class RelatorioVagas {
+    private final Eleicao eleicao;
+    private final ResultadoVagas vagas;
+    private final PrintWriter saida;
+    // Votação de cada candidato, capturada junto com o resultado da eleição.
+    private final Map<Candidato, ResultadoCandidato> resultados = new IdentityHashMap<>();
+
+    public RelatorioVagas(Eleicao eleicao, ResultadoVagas vagas, Writer saida) {
+        this.eleicao = eleicao;
+        this.vagas = vagas;
+        this.saida = saida instanceof PrintWriter ? (PrintWriter) saida : new PrintWriter(saida);
+        for (ResultadoCandidato resultado : eleicao.getResultado().getCandidatos()) {
+            resultados.put(resultado.getCandidato(), resultado);
+        }
+    }
+
+    /**
+     * Imprime a distribuição das vagas e as diferenças em relação ao arquivo de candidatos.
+     */
+    public void imprimeTodos() {
+        imprimeQuocientes();
+        imprimeEleitos();
+        imprimeDiferencas();
+        saida.flush();
+        if (saida.checkError()) {
+            System.err.println("Erro ao escrever o relatório de vagas");
+        }
+    }
+
+    /**
+     * Imprime o número de vagas, os votos válidos e os quocientes.
+     */
+    public void imprimeQuocientes() {
+        NumberFormat nf = NumberFormat.getInstance(Locale.forLanguageTag("pt-BR"));
+        saida.println("Distribuição das vagas calculada pelos quocientes:");
+        saida.println("Número de vagas: " + vagas.getNumVagas());
+        saida.println("Votos válidos: " + nf.format(vagas.getVotosValidos()));
+        saida.println("Quociente eleitoral: " + nf.format(vagas.getQuocienteEleitoral()));
+        saida.println("Vagas preenchidas pelos quocientes partidários: " + vagas.getNumVagasPorQP());
+    }
+
+    /**
+     * Imprime os eleitos pelo cálculo, na ordem em que as vagas foram preenchidas.
+     */
+    public void imprimeEleitos() {
+        saida.println("\nEleitos pelo cálculo (na ordem de preenchimento das vagas):");
+        imprimeCandidatos(vagas.getEleitos());
+    }
+
+    /**
+     * Imprime os candidatos cujo resultado calculado difere da situação no arquivo de candidatos.
+     */
+    public void imprimeDiferencas() {
+        List<Candidato> apenasCalculo = new ArrayList<>();
+        for (Candidato candidato : vagas.getEleitos()) {
+            if (!eleicao.isEleito(candidato)) {
+                apenasCalculo.add(candidato);
+            }
+        }
+        List<Candidato> apenasArquivo = new ArrayList<>(eleicao.getCandidatosEleitos());
+        apenasArquivo.removeAll(vagas.getEleitos());
+
+        saida.println("\nEleitos pelo cálculo e não eleitos no arquivo de candidatos:");
+        imprimeCandidatos(apenasCalculo);
+        saida.println("\nEleitos no arquivo de candidatos e não eleitos pelo cálculo:");
+        imprimeCandidatos(apenasArquivo);
+    }
+
+    /**
+     * Imprime os candidatos cujo resultado mudou em algum cenário da simulação, dos menos
+     * para os mais estáveis, com a frequência com que foram eleitos.
+     *
+     * @param simulacao resultado da simulação sobre a mesma eleição
+     */
+    public void imprimeSimulacao(ResultadoSimulacao simulacao) {
+        NumberFormat nf = NumberFormat.getPercentInstance(Locale.forLanguageTag("pt-BR"));
+        nf.setMinimumFractionDigits(2);
+        nf.setMaximumFractionDigits(2);
+
+        List<Integer> instaveis = simulacao.getCandidatosInstaveis();
+        saida.println("\nCandidatos instáveis em " + simulacao.getNumCenarios() + " cenários simulados:");
+        if (instaveis.isEmpty()) {
+            saida.println("(nenhum)");
+        }
+        int index = 0;
+        for (int i : instaveis) {
+            Candidato candidato = simulacao.getCandidatos().get(i);
+            String situacao = simulacao.getResultadoBase().isEleito(i) ? "eleito" : "não eleito";
+            saida.printf("%d - %s: eleito em %s dos cenários (%s pelo cálculo)%n", ++index,
+                CandidatoFormatter.format(resultados.get(candidato)), nf.format(simulacao.getFrequencia(i)), situacao);
+        }
+        saida.flush();
+        if (saida.checkError()) {
+            System.err.println("Erro ao escrever o relatório de vagas");
+        }
+    }
+
+    private void imprimeCandidatos(List<Candidato> candidatos) {
+        if (candidatos.isEmpty()) {
+            saida.println("(nenhum)");
+            return;
+        }
+        int index = 0;
+        for (Candidato candidato : candidatos) {
+            saida.println(++index + " - " + CandidatoFormatter.format(resultados.get(candidato)));
+        }
+    }
+}
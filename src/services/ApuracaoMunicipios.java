@@ -0,0 +1,243 @@
+package services;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import domain.Candidato;
+import domain.Eleicao;
+import domain.Partido;
+import domain.ResultadoVagas;
+import enums.Cargo;
+import io.AcumuladorVotos;
+import io.CacheBinario;
+import report.Relatorio;
+import report.RelatorioVagas;
+import util.Metricas;
+
+/**
+ * Apuração de todos os municípios presentes nos arquivos, mantendo uma eleição independente
+ * por município e cargo. Os arquivos de candidatos e de votos são lidos uma única vez, com
+ * todos os cargos, e cada linha é encaminhada à eleição do seu município e cargo. Os relatórios
+ * e a distribuição de vagas são os da eleição para vereador.
+ */
+public class ApuracaoMunicipios {
+    private final Map<Cargo, Map<String, Eleicao>> eleicoesPorCargo = new EnumMap<>(Cargo.class);
+    private final Map<String, Eleicao> eleicoes;
+
+    public ApuracaoMunicipios() {
+        for (Cargo cargo : Cargo.values()) {
+            eleicoesPorCargo.put(cargo, new TreeMap<>());
+        }
+        eleicoes = eleicoesPorCargo.get(Cargo.VEREADOR);
+    }
+
+    /**
+     * Lê o arquivo de candidatos e cria uma eleição para cada município e cargo com candidatos.
+     * Assim como na apuração de um único município, todos os partidos do arquivo são cadastrados
+     * em cada eleição, cada uma com suas próprias instâncias de Partido.
+     *
+     * @param candidatosCSV caminho do arquivo de candidatos
+     */
+    public void carregaCandidatos(String candidatosCSV) {
+        Collection<Candidato> candidatos = Metricas.mede(
+            "leitura_candidatos", () -> CacheBinario.readCandidatos(candidatosCSV));
+        carregaCandidatos(candidatos);
+    }
+
+    /**
+     * Cria as eleições a partir dos candidatos já lidos, como em {@link #carregaCandidatos(String)}.
+     *
+     * @param candidatos candidatos de todos os municípios
+     */
+    public void carregaCandidatos(Collection<Candidato> candidatos) {
+        Map<Integer, String> siglas = new TreeMap<>();
+        for (Candidato candidato : candidatos) {
+            siglas.putIfAbsent(candidato.getPartido().getNumero(), candidato.getPartido().getSigla());
+            Cargo cargo = candidato.getCargo();
+            if (cargo != null) {
+                eleicoesPorCargo.get(cargo).computeIfAbsent(
+                    candidato.getCodigoMunicipio(), codigo -> new Eleicao(codigo, cargo));
+            }
+        }
+
+        for (Map<String, Eleicao> eleicoesDoCargo : eleicoesPorCargo.values()) {
+            for (Eleicao eleicao : eleicoesDoCargo.values()) {
+                for (Map.Entry<Integer, String> partido : siglas.entrySet()) {
+                    eleicao.addPartido(new Partido(partido.getKey(), partido.getValue()));
+                }
+            }
+        }
+
+        for (Candidato candidato : candidatos) {
+            Eleicao eleicao = getEleicao(candidato.getCodigoMunicipio(), candidato.getCargo());
+            if (eleicao != null) {
+                eleicao.addCandidato(candidato);
+            }
+        }
+    }
+
+    /**
+     * Lê o arquivo de votos em uma única passada, contando os votos de todos os municípios
+     * e cargos, e computa a contagem de cada eleição em paralelo.
+     *
+     * @param votosCSV caminho do arquivo de votos
+     * @param numThreads número de threads de leitura
+     */
+    public void computaVotos(String votosCSV, int numThreads) {
+        AcumuladorVotos contagem = Metricas.mede(
+            "leitura_votos", () -> CacheBinario.contaVotos(votosCSV, null, numThreads));
+        computaVotos(contagem);
+    }
+
+    /**
+     * Computa, em paralelo por município, a contagem de votos já lida em cada eleição, cada
+     * uma recebendo apenas os votos do seu cargo. Os candidatos devem ter sido carregados antes.
+     *
+     * @param contagem contagem dos votos de todos os municípios
+     */
+    public void computaVotos(AcumuladorVotos contagem) {
+        Metricas.mede("computa_votos", () -> contagem.getMunicipios().parallelStream().forEach(codigoMunicipio -> {
+            for (Cargo cargo : Cargo.values()) {
+                Eleicao eleicao = getEleicao(codigoMunicipio, cargo);
+                if (eleicao != null) {
+                    VotacaoService votacaoService = new VotacaoService(eleicao);
+                    contagem.emiteLotes(codigoMunicipio, cargo, votacaoService::computaVotos);
+                }
+            }
+        }));
+    }
+
+    /**
+     * Calcula a distribuição das vagas de todos os municípios a partir dos votos apurados,
+     * em paralelo. O número de vagas é um dado de entrada, e não o número de eleitos do
+     * arquivo de candidatos, que é justamente o que a distribuição deve reproduzir.
+     *
+     * @param numVagas número de vagas de cada município, a partir do código do município
+     * @return resultado de cada município, em ordem de código
+     */
+    public Map<String, ResultadoVagas> distribuiVagas(ToIntFunction<String> numVagas) {
+        return Metricas.mede("distribuicao_vagas", () -> DistribuicaoVagas.calculaTodas(eleicoes.values(), numVagas));
+    }
+
+    /**
+     * Calcula a distribuição das vagas de todos os municípios e imprime, para cada um, em
+     * ordem de código, o relatório da distribuição. Com cenários, cada município também tem
+     * a robustez do resultado simulada por {@link SimulacaoVagas}, e o relatório lista os
+     * candidatos instáveis.
+     *
+     * @param numVagas número de vagas de cada município, a partir do código do município
+     * @param numCenarios número de cenários simulados por município, ou 0 para não simular
+     * @param saida destino dos relatórios
+     */
+    public void imprimeDistribuicaoVagas(ToIntFunction<String> numVagas, int numCenarios, Writer saida) {
+        Map<String, ResultadoVagas> resultados = distribuiVagas(numVagas);
+        List<String> relatorios = new ArrayList<>(resultados.size());
+        for (Map.Entry<String, ResultadoVagas> resultado : resultados.entrySet()) {
+            Eleicao eleicao = eleicoes.get(resultado.getKey());
+            StringWriter buffer = new StringWriter();
+            buffer.write(cabecalho(eleicao));
+            RelatorioVagas relatorio = new RelatorioVagas(eleicao, resultado.getValue(), buffer);
+            relatorio.imprimeTodos();
+            if (numCenarios > 0) {
+                int vagas = resultado.getValue().getNumVagas();
+                relatorio.imprimeSimulacao(Metricas.mede("simulacao",
+                    () -> new SimulacaoVagas(eleicao, vagas).simula(numCenarios)));
+            }
+            buffer.write(System.lineSeparator());
+            relatorios.add(buffer.toString());
+        }
+        Metricas.mede("saida", () -> escreve(relatorios, saida));
+    }
+
+    /**
+     * Imprime os relatórios de cada município, em ordem de código. Os relatórios são gerados
+     * em paralelo, cada um em um buffer em memória, e escritos na saída em sequência, com
+     * um único flush ao final. Municípios sem vagas preenchidas no arquivo de candidatos
+     * não têm relatório.
+     *
+     * @param dataEleicao data da eleição
+     * @param saida destino dos relatórios
+     */
+    public void imprimeRelatorios(LocalDate dataEleicao, Writer saida) {
+        List<String> relatorios = Metricas.mede("relatorio", () -> eleicoes.values().parallelStream()
+            .filter(eleicao -> eleicao.getNumVagas() > 0)
+            .map(eleicao -> geraRelatorio(eleicao, dataEleicao))
+            .collect(Collectors.toList()));
+
+        Metricas.mede("saida", () -> escreve(relatorios, saida));
+    }
+
+    private static void escreve(List<String> relatorios, Writer saida) {
+        try {
+            for (String relatorio : relatorios) {
+                saida.write(relatorio);
+            }
+            saida.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao escrever os relatórios", e);
+        }
+    }
+
+    private static String geraRelatorio(Eleicao eleicao, LocalDate dataEleicao) {
+        StringWriter buffer = new StringWriter();
+        buffer.write(cabecalho(eleicao));
+        new Relatorio(eleicao.getResultado(), buffer).imprimeTodos(dataEleicao);
+        buffer.write(System.lineSeparator());
+        return buffer.toString();
+    }
+
+    private static String cabecalho(Eleicao eleicao) {
+        return "Município " + eleicao.getCodigoMunicipio() + ":\n" + System.lineSeparator();
+    }
+
+    /**
+     * Retorna a eleição para vereador de um município.
+     *
+     * @param codigoMunicipio código do município
+     * @return a eleição ou null se o município não tiver candidatos
+     */
+    public Eleicao getEleicao(String codigoMunicipio) {
+        return eleicoes.get(codigoMunicipio);
+    }
+
+    /**
+     * Retorna a eleição de um cargo em um município.
+     *
+     * @param codigoMunicipio código do município
+     * @param cargo cargo da eleição
+     * @return a eleição ou null se o município não tiver candidatos ao cargo
+     */
+    public Eleicao getEleicao(String codigoMunicipio, Cargo cargo) {
+        return cargo != null ? eleicoesPorCargo.get(cargo).get(codigoMunicipio) : null;
+    }
+
+    /**
+     * Retorna as eleições para vereador de todos os municípios, em ordem de código.
+     *
+     * @return lista de eleições
+     */
+    public List<Eleicao> getEleicoes() {
+        return new ArrayList<>(eleicoes.values());
+    }
+
+    /**
+     * Retorna as eleições de um cargo em todos os municípios, em ordem de código.
+     *
+     * @param cargo cargo das eleições
+     * @return lista de eleições
+     */
+    public List<Eleicao> getEleicoes(Cargo cargo) {
+        return new ArrayList<>(eleicoesPorCargo.get(cargo).values());
+    }
+}
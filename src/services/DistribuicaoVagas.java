@@ -0,0 +1,306 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import domain.Candidato;
+import domain.Eleicao;
+import domain.Partido;
+import domain.ResultadoVagas;
+import domain.TabelaVotos;
+import domain.VotosApurados;
+
+/**
+ * Calcula a distribuição das vagas de vereador a partir da votação, pelo sistema proporcional:
+ * <ol>
+ * <li>Quociente eleitoral (QE): votos válidos (nominais e de legenda) divididos pelo número de
+ * vagas, desprezada a fração igual ou inferior a meio e arredondada para cima a superior.</li>
+ * <li>Quociente partidário: votos da agremiação divididos pelo QE, sem a fração; a agremiação
+ * elege até esse número de candidatos, desde que tenham ao menos 10% do QE.</li>
+ * <li>Sobras: pelas maiores médias (votos / (vagas obtidas + 1)), entre agremiações com ao
+ * menos 80% do QE e candidatos com ao menos 20% do QE.</li>
+ * <li>Vagas restantes: pelas maiores médias entre todas as agremiações, sem os limites.</li>
+ * </ol>
+ * Partidos de uma mesma federação ({@link Candidato#getNumFederacao()}) formam uma única
+ * agremiação. As médias ficam em uma fila de prioridade, e cada vaga das sobras custa
+ * O(log agremiações).
+ * <p>
+ * A estrutura da eleição (candidatos, partidos e agremiações, com índices densos) é montada
+ * uma vez; o cálculo recebe uma {@link TabelaVotos} e pode ser repetido sobre votações
+ * diferentes, inclusive em paralelo.
+ */
+public class DistribuicaoVagas {
+    private final Eleicao eleicao;
+    private final List<Candidato> candidatos;
+    private final List<Partido> partidos;
+    private final int[] partidoDoCandidato;
+    private final int[] agremiacaoDoPartido;
+    private final int numAgremiacoes;
+    private final int numVagas;
+
+    /**
+     * Monta a distribuição para um número de vagas informado. O número de vagas da câmara é
+     * um dado de entrada, e não o número de eleitos do arquivo de candidatos, que já é o
+     * resultado da distribuição.
+     *
+     * @param eleicao eleição com os candidatos cadastrados
+     * @param numVagas número de vagas em disputa
+     * @throws IllegalArgumentException se o cargo da eleição não for proporcional ou se o
+     *         número de vagas não for positivo
+     */
+    public DistribuicaoVagas(Eleicao eleicao, int numVagas) {
+        if (numVagas <= 0) {
+            throw new IllegalArgumentException("Número de vagas deve ser positivo: " + numVagas);
+        }
+        if (!eleicao.getCargo().isProporcional()) {
+            throw new IllegalArgumentException(
+                "Distribuição por quocientes não se aplica ao cargo " + eleicao.getCargo());
+        }
+        this.eleicao = eleicao;
+        this.numVagas = numVagas;
+        this.partidos = eleicao.getPartidos();
+        this.candidatos = new ArrayList<>(eleicao.getCandidatos());
+        this.candidatos.sort(Comparator.comparingInt(Candidato::getNumero));
+
+        Map<Partido, Integer> indicesPartidos = new IdentityHashMap<>();
+        for (int i = 0; i < partidos.size(); i++) {
+            indicesPartidos.put(partidos.get(i), i);
+        }
+
+        // A federação de um partido é a informada pelos seus candidatos.
+        int[] federacaoDoPartido = new int[partidos.size()];
+        Arrays.fill(federacaoDoPartido, -1);
+        partidoDoCandidato = new int[candidatos.size()];
+        for (int i = 0; i < candidatos.size(); i++) {
+            Candidato candidato = candidatos.get(i);
+            int partido = indicesPartidos.get(candidato.getPartido());
+            partidoDoCandidato[i] = partido;
+            if (candidato.getNumFederacao() != -1) {
+                federacaoDoPartido[partido] = candidato.getNumFederacao();
+            }
+        }
+
+        agremiacaoDoPartido = new int[partidos.size()];
+        Map<Integer, Integer> agremiacaoDaFederacao = new HashMap<>();
+        int agremiacoes = 0;
+        for (int p = 0; p < partidos.size(); p++) {
+            if (federacaoDoPartido[p] == -1) {
+                agremiacaoDoPartido[p] = agremiacoes++;
+            } else {
+                Integer agremiacao = agremiacaoDaFederacao.get(federacaoDoPartido[p]);
+                if (agremiacao == null) {
+                    agremiacao = agremiacoes++;
+                    agremiacaoDaFederacao.put(federacaoDoPartido[p], agremiacao);
+                }
+                agremiacaoDoPartido[p] = agremiacao;
+            }
+        }
+        numAgremiacoes = agremiacoes;
+    }
+
+    /**
+     * Retorna os candidatos, na ordem dos índices usados pela {@link TabelaVotos}.
+     *
+     * @return lista de candidatos
+     */
+    public List<Candidato> getCandidatos() {
+        return candidatos;
+    }
+
+    /**
+     * Retorna os partidos, na ordem dos índices usados pela {@link TabelaVotos}.
+     *
+     * @return lista de partidos
+     */
+    public List<Partido> getPartidos() {
+        return partidos;
+    }
+
+    public int getNumVagas() {
+        return numVagas;
+    }
+
+    /**
+     * Captura em uma tabela a votação dos candidatos e partidos na última versão publicada pela eleição.
+     *
+     * @return a votação apurada
+     */
+    public VotosApurados getVotosApurados() {
+        return new VotosApurados(candidatos, partidos, eleicao, eleicao.getVersao());
+    }
+
+    /**
+     * Calcula a distribuição das vagas sobre a votação apurada.
+     *
+     * @return o resultado da distribuição
+     */
+    public ResultadoVagas calcula() {
+        return calcula(getVotosApurados());
+    }
+
+    /**
+     * Calcula a distribuição das vagas sobre uma votação.
+     *
+     * @param votos votação dos candidatos e partidos, pelos índices desta distribuição
+     * @return o resultado da distribuição
+     */
+    public ResultadoVagas calcula(TabelaVotos votos) {
+        long[] votosAgremiacao = new long[numAgremiacoes];
+        long votosValidos = 0;
+        for (int p = 0; p < partidos.size(); p++) {
+            votosAgremiacao[agremiacaoDoPartido[p]] += votos.getVotosLegenda(p);
+            votosValidos += votos.getVotosLegenda(p);
+        }
+
+        int[][] candidatosPorAgremiacao = ordenaCandidatos(votos);
+        for (int c = 0; c < candidatos.size(); c++) {
+            votosAgremiacao[agremiacaoDoPartido[partidoDoCandidato[c]]] += votos.getVotosNominais(c);
+            votosValidos += votos.getVotosNominais(c);
+        }
+
+        List<Candidato> eleitos = new ArrayList<>(numVagas);
+        boolean[] eleito = new boolean[candidatos.size()];
+        if (numVagas <= 0 || votosValidos == 0) {
+            return ResultadoVagas.de((int) votosValidos, 0, numVagas, 0, eleitos, eleito);
+        }
+
+        long quocienteEleitoral = votosValidos / numVagas + (2 * (votosValidos % numVagas) > numVagas ? 1 : 0);
+
+        // Vagas obtidas por agremiação; os eleitos de cada uma são sempre os primeiros da sua lista.
+        int[] vagas = new int[numAgremiacoes];
+        for (int a = 0; a < numAgremiacoes; a++) {
+            long quocientePartidario = votosAgremiacao[a] / quocienteEleitoral;
+            int[] lista = candidatosPorAgremiacao[a];
+            while (vagas[a] < quocientePartidario && vagas[a] < lista.length
+                    && eleitos.size() < numVagas
+                    && 10L * votos.getVotosNominais(lista[vagas[a]]) >= quocienteEleitoral) {
+                elege(lista[vagas[a]], eleitos, eleito);
+                vagas[a]++;
+            }
+        }
+        int numVagasPorQP = eleitos.size();
+
+        // Sobras entre as agremiações com 80% do QE e candidatos com 20% do QE.
+        distribuiSobras(votos, votosAgremiacao, candidatosPorAgremiacao, vagas, eleitos, eleito,
+            a -> 5 * votosAgremiacao[a] >= 4 * quocienteEleitoral,
+            quocienteEleitoral);
+        // Vagas que ainda restarem vão para todas as agremiações, pelas maiores médias.
+        distribuiSobras(votos, votosAgremiacao, candidatosPorAgremiacao, vagas, eleitos, eleito,
+            a -> true, 0);
+
+        return ResultadoVagas.de((int) votosValidos, (int) quocienteEleitoral, numVagas, numVagasPorQP,
+            eleitos, eleito);
+    }
+
+    /**
+     * Distribui vagas pelas maiores médias entre as agremiações participantes, até acabarem
+     * as vagas ou os candidatos que atendem à votação mínima.
+     *
+     * @param minimoCandidato quociente eleitoral, se o candidato precisa de 20% dele; 0 sem limite
+     */
+    private void distribuiSobras(TabelaVotos votos, long[] votosAgremiacao, int[][] candidatosPorAgremiacao,
+            int[] vagas, List<Candidato> eleitos, boolean[] eleito,
+            IntPredicate participa, long minimoCandidato) {
+        if (eleitos.size() >= numVagas) {
+            return;
+        }
+
+        // Maior média primeiro: compara votos_a / (vagas_a + 1) sem divisão; empate pela votação.
+        PriorityQueue<Integer> medias = new PriorityQueue<>((a, b) -> {
+            int diff = Long.compare(votosAgremiacao[b] * (vagas[a] + 1), votosAgremiacao[a] * (vagas[b] + 1));
+            if (diff == 0) {
+                diff = Long.compare(votosAgremiacao[b], votosAgremiacao[a]);
+            }
+            return diff != 0 ? diff : Integer.compare(a, b);
+        });
+        for (int a = 0; a < numAgremiacoes; a++) {
+            if (participa.test(a) && vagas[a] < candidatosPorAgremiacao[a].length) {
+                medias.add(a);
+            }
+        }
+
+        while (eleitos.size() < numVagas && !medias.isEmpty()) {
+            int a = medias.poll();
+            int[] lista = candidatosPorAgremiacao[a];
+            int candidato = lista[vagas[a]];
+            if (5L * votos.getVotosNominais(candidato) < minimoCandidato) {
+                // Lista em ordem de votação: nenhum outro candidato da agremiação atinge o mínimo.
+                continue;
+            }
+
+            elege(candidato, eleitos, eleito);
+            vagas[a]++;
+            if (vagas[a] < lista.length) {
+                medias.add(a);
+            }
+        }
+    }
+
+    private void elege(int candidato, List<Candidato> eleitos, boolean[] eleito) {
+        eleito[candidato] = true;
+        eleitos.add(candidatos.get(candidato));
+    }
+
+    /**
+     * Agrupa os índices dos candidatos por agremiação, em ordem decrescente de votos e,
+     * no empate, do mais velho para o mais novo.
+     */
+    private int[][] ordenaCandidatos(TabelaVotos votos) {
+        int[] tamanhos = new int[numAgremiacoes];
+        for (int c = 0; c < candidatos.size(); c++) {
+            tamanhos[agremiacaoDoPartido[partidoDoCandidato[c]]]++;
+        }
+
+        Integer[][] listas = new Integer[numAgremiacoes][];
+        for (int a = 0; a < numAgremiacoes; a++) {
+            listas[a] = new Integer[tamanhos[a]];
+            tamanhos[a] = 0;
+        }
+        for (int c = 0; c < candidatos.size(); c++) {
+            int a = agremiacaoDoPartido[partidoDoCandidato[c]];
+            listas[a][tamanhos[a]++] = c;
+        }
+
+        Comparator<Integer> ordem = (c1, c2) -> {
+            int diff = Integer.compare(votos.getVotosNominais(c2), votos.getVotosNominais(c1));
+            if (diff == 0) {
+                diff = Integer.compare(candidatos.get(c1).getDiaNascimento(), candidatos.get(c2).getDiaNascimento());
+            }
+            return diff != 0 ? diff : Integer.compare(c1, c2);
+        };
+
+        int[][] ordenadas = new int[numAgremiacoes][];
+        for (int a = 0; a < numAgremiacoes; a++) {
+            Arrays.sort(listas[a], ordem);
+            ordenadas[a] = Arrays.stream(listas[a]).mapToInt(Integer::intValue).toArray();
+        }
+        return ordenadas;
+    }
+
+    /**
+     * Calcula a distribuição das vagas de várias eleições em paralelo.
+     *
+     * @param eleicoes eleições já apuradas
+     * @param numVagas número de vagas em disputa, pelo código do município
+     * @return resultado de cada eleição, por código do município
+     */
+    public static Map<String, ResultadoVagas> calculaTodas(Collection<Eleicao> eleicoes,
+            ToIntFunction<String> numVagas) {
+        return eleicoes.parallelStream().collect(Collectors.toMap(
+            Eleicao::getCodigoMunicipio,
+            eleicao -> new DistribuicaoVagas(eleicao, numVagas.applyAsInt(eleicao.getCodigoMunicipio())).calcula(),
+            (a, b) -> a,
+            TreeMap::new));
+    }
+}
@@ -0,0 +1,106 @@
+package services;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import domain.Candidato;
+import io.AcumuladorVotos;
+import io.CacheBinario;
+import util.Metricas;
+
+/**
+ * Leitura dos arquivos de candidatos e de votos ao mesmo tempo, em threads separadas.
+ * <p>
+ * Os votos só precisam dos candidatos na hora de serem computados, então a leitura de um
+ * arquivo não espera a do outro: os votos lidos ficam agregados em um {@link AcumuladorVotos}
+ * até que os candidatos estejam cadastrados, e o tempo total das leituras passa a ser o da
+ * mais demorada. Com {@code -Deleicao.pipeline=false} os arquivos são lidos em sequência,
+ * na thread chamadora.
+ */
+public class PipelineApuracao implements AutoCloseable {
+    private final ExecutorService executor;
+    private final CompletableFuture<Set<Candidato>> candidatos;
+    private final CompletableFuture<AcumuladorVotos> votos;
+
+    /**
+     * Inicia a leitura dos dois arquivos.
+     *
+     * @param candidatosCSV caminho do arquivo de candidatos
+     * @param votosCSV caminho do arquivo de votos
+     * @param codigoMunicipio código do município dos votos, ou null para todos
+     * @param numThreads número de threads de leitura dos votos
+     */
+    public PipelineApuracao(String candidatosCSV, String votosCSV, String codigoMunicipio, int numThreads) {
+        Executor destino;
+        if (isHabilitado()) {
+            executor = Executors.newFixedThreadPool(2, tarefa -> {
+                Thread thread = new Thread(tarefa, "pipeline-leitura");
+                thread.setDaemon(true);
+                return thread;
+            });
+            destino = executor;
+        } else {
+            executor = null;
+            destino = Runnable::run;
+        }
+
+        candidatos = CompletableFuture.supplyAsync(
+            () -> Metricas.mede("leitura_candidatos", () -> CacheBinario.readCandidatos(candidatosCSV)), destino);
+        votos = CompletableFuture.supplyAsync(
+            () -> Metricas.mede("leitura_votos", () -> CacheBinario.contaVotos(votosCSV, codigoMunicipio, numThreads)),
+            destino);
+    }
+
+    /**
+     * Indica se as leituras devem ocorrer em paralelo, o que pode ser desativado com a
+     * propriedade {@code eleicao.pipeline=false}.
+     *
+     * @return true se as leituras são concorrentes
+     */
+    public static boolean isHabilitado() {
+        return !"false".equalsIgnoreCase(System.getProperty("eleicao.pipeline"));
+    }
+
+    /**
+     * Aguarda a leitura dos candidatos.
+     *
+     * @return os candidatos lidos
+     */
+    public Set<Candidato> getCandidatos() {
+        return aguarda(candidatos);
+    }
+
+    /**
+     * Aguarda a leitura dos votos.
+     *
+     * @return a contagem dos votos lidos
+     */
+    public AcumuladorVotos getVotos() {
+        return aguarda(votos);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static <T> T aguarda(CompletableFuture<T> leitura) {
+        try {
+            return leitura.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package services;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import domain.Eleicao;
+import domain.ResultadoSimulacao;
+import domain.ResultadoVagas;
+import domain.VotosApurados;
+import domain.VotosPerturbados;
+
+/**
+ * Simulação da robustez do resultado de uma eleição: milhares de cenários, cada um com
+ * pequenas alterações aleatórias na votação, têm a distribuição de vagas recalculada, e
+ * conta-se em quantos cenários cada candidato é eleito.
+ * <p>
+ * A votação apurada é capturada uma única vez e compartilhada por todos os cenários; cada
+ * cenário vê essa base através de um {@link VotosPerturbados}, que guarda apenas as alterações,
+ * sem copiar candidatos, partidos ou a eleição. Os cenários são divididos em tarefas de um
+ * ForkJoinPool, e cada cenário usa um gerador aleatório derivado do seu índice, de modo que o
+ * resultado não depende do número de threads.
+ */
+public class SimulacaoVagas {
+    private static final int CENARIOS_POR_TAREFA = 64;
+
+    private final DistribuicaoVagas distribuicao;
+    private final VotosApurados votosApurados;
+    private int numAlteracoes = 10;
+    private double variacao = 0.1;
+    private long semente = 42;
+
+    /**
+     * Prepara a simulação sobre a votação atual da eleição.
+     *
+     * @param eleicao eleição já apurada
+     * @param numVagas número de vagas em disputa
+     */
+    public SimulacaoVagas(Eleicao eleicao, int numVagas) {
+        this(new DistribuicaoVagas(eleicao, numVagas));
+    }
+
+    /**
+     * Prepara a simulação sobre a votação atual de uma distribuição de vagas.
+     *
+     * @param distribuicao distribuição de vagas da eleição
+     */
+    public SimulacaoVagas(DistribuicaoVagas distribuicao) {
+        this.distribuicao = distribuicao;
+        this.votosApurados = distribuicao.getVotosApurados();
+    }
+
+    /**
+     * Define quantas votações (de candidatos ou de legenda) são alteradas em cada cenário.
+     *
+     * @param numAlteracoes número de alterações por cenário
+     */
+    public void setNumAlteracoes(int numAlteracoes) {
+        if (numAlteracoes < 0) {
+            throw new IllegalArgumentException("Número de alterações não pode ser negativo");
+        }
+        this.numAlteracoes = numAlteracoes;
+    }
+
+    /**
+     * Define a variação máxima de cada alteração, como fração da votação alterada;
+     * votações pequenas variam ao menos um voto.
+     *
+     * @param variacao variação máxima, por exemplo 0.1 para 10%
+     */
+    public void setVariacao(double variacao) {
+        if (variacao < 0) {
+            throw new IllegalArgumentException("Variação não pode ser negativa");
+        }
+        this.variacao = variacao;
+    }
+
+    public void setSemente(long semente) {
+        this.semente = semente;
+    }
+
+    /**
+     * Executa os cenários no pool comum do ForkJoin.
+     *
+     * @param numCenarios número de cenários
+     * @return frequência de eleição de cada candidato
+     */
+    public ResultadoSimulacao simula(int numCenarios) {
+        return simula(numCenarios, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Executa os cenários no pool informado.
+     *
+     * @param numCenarios número de cenários
+     * @param pool pool onde as tarefas são executadas
+     * @return frequência de eleição de cada candidato
+     */
+    public ResultadoSimulacao simula(int numCenarios, ForkJoinPool pool) {
+        ResultadoVagas resultadoBase = distribuicao.calcula(votosApurados);
+        int[] vezesEleito = pool.invoke(new Cenarios(0, numCenarios));
+        return new ResultadoSimulacao(distribuicao.getCandidatos(), numCenarios, vezesEleito, resultadoBase);
+    }
+
+    /**
+     * Executa um cenário sobre a visão, que é limpa antes das alterações.
+     */
+    private ResultadoVagas executaCenario(int cenario, VotosPerturbados votos) {
+        SplittableRandom random = new SplittableRandom(semente + cenario * 0x9E3779B97F4A7C15L);
+        int numCandidatos = votosApurados.getNumCandidatos();
+        int numPartidos = votosApurados.getNumPartidos();
+
+        votos.limpa();
+        for (int i = 0; i < numAlteracoes && numCandidatos + numPartidos > 0; i++) {
+            int indice = random.nextInt(numCandidatos + numPartidos);
+            boolean nominal = indice < numCandidatos;
+            int atual = nominal ? votosApurados.getVotosNominais(indice)
+                : votosApurados.getVotosLegenda(indice - numCandidatos);
+
+            int amplitude = Math.max(1, (int) Math.round(atual * variacao));
+            int diferenca = random.nextInt(2 * amplitude + 1) - amplitude;
+            if (nominal) {
+                votos.alteraVotosNominais(indice, diferenca);
+            } else {
+                votos.alteraVotosLegenda(indice - numCandidatos, diferenca);
+            }
+        }
+        return distribuicao.calcula(votos);
+    }
+
+    /**
+     * Tarefa que executa um intervalo de cenários, dividindo-o enquanto for grande.
+     */
+    private class Cenarios extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int inicio;
+        private final int fim;
+
+        Cenarios(int inicio, int fim) {
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (fim - inicio > CENARIOS_POR_TAREFA) {
+                int meio = (inicio + fim) >>> 1;
+                Cenarios esquerda = new Cenarios(inicio, meio);
+                esquerda.fork();
+                int[] direita = new Cenarios(meio, fim).compute();
+                int[] soma = esquerda.join();
+                for (int i = 0; i < soma.length; i++) {
+                    soma[i] += direita[i];
+                }
+                return soma;
+            }
+
+            int[] vezesEleito = new int[votosApurados.getNumCandidatos()];
+            VotosPerturbados votos = new VotosPerturbados(votosApurados);
+            for (int cenario = inicio; cenario < fim; cenario++) {
+                ResultadoVagas resultado = executaCenario(cenario, votos);
+                for (int i = 0; i < vezesEleito.length; i++) {
+                    if (resultado.isEleito(i)) {
+                        vezesEleito[i]++;
+                    }
+                }
+            }
+            return vezesEleito;
+        }
+    }
+}
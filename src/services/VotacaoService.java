@@ -1,13 +1,21 @@
 package services;
 
+import java.util.Collection;
+
 import domain.Candidato;
 import domain.Eleicao;
-import domain.Partido;
+import domain.IncrementoVotos;
+import domain.LoteVotos;
 import domain.Voto;
-import enums.Cargo;
+import util.Metricas;
 
 /**
  * Serviço responsável por computar os votos e atualizar candidatos e partidos.
+ * <p>
+ * Depois que os candidatos foram cadastrados na eleição, o serviço pode ser chamado por
+ * várias threads ao mesmo tempo: as buscas na eleição são somente leitura, e os votos de
+ * cada chamada são acumulados em um {@link IncrementoVotos} próprio, sem locks, e aplicados
+ * à eleição de uma vez ao final, publicando uma nova versão da votação.
  */
 public class VotacaoService {
     private Eleicao eleicao;
@@ -18,39 +26,135 @@ public class VotacaoService {
 
     /**
      * Processa e computa os votos, atualizando candidatos e partidos conforme necessário.
+     * Os votos são aplicados à eleição em um único incremento, então, na apuração incremental,
+     * cada chamada pode receber uma onda de resultados de seções, e cada candidato é
+     * reposicionado nos rankings uma única vez por chamada.
      *
      * @param votos coleção de votos a serem computados
      */
     public void computaVotos(Iterable<Voto> votos) {
+        IncrementoVotos incremento = eleicao.novoIncremento();
         for (Voto voto : votos) {
-            if (!isValido(voto)) {
+            acumula(voto, incremento);
+        }
+        eleicao.aplica(incremento);
+    }
+
+    /**
+     * Computa um lote colunar de votos, percorrendo diretamente os vetores do lote.
+     *
+     * @param lote lote de votos a serem computados
+     */
+    public void computaVotos(LoteVotos lote) {
+        IncrementoVotos incremento = eleicao.novoIncremento();
+        long invalidos = 0;
+        long candidatoDesconhecido = 0;
+        long partidoDesconhecido = 0;
+
+        for (int i = 0; i < lote.size(); i++) {
+            int numVotavel = lote.getNumVotavel(i);
+            int quantidade = lote.getQuantidade(i);
+            if (!isValido(lote.getCodigoCargo(i), numVotavel)) {
+                invalidos += quantidade;
                 continue;
             }
 
-            if (voto.isNominal()) {
-                Candidato candidato = eleicao.findCandidato(voto.getCodigoMunicipio(), voto.getNumVotavel());
-                if (candidato != null) {
-                    Partido partido = candidato.getPartido();
-                    candidato.incrementaVotos(voto.getQuantidade());
-                    partido.incrementaVotosNominais(voto.getQuantidade());
+            if (lote.isNominal(i)) {
+                int candidato = eleicao.findIndiceCandidato(lote.getIdMunicipio(i), numVotavel);
+                if (candidato >= 0) {
+                    incremento.adicionaNominais(candidato, quantidade);
+                } else {
+                    candidatoDesconhecido += quantidade;
                 }
             } else {
-                Partido partido = eleicao.findPartido(voto.getNumVotavel());
-                if (partido != null) {
-                    partido.incrementaVotosLegenda(voto.getQuantidade());
+                int partido = eleicao.findIndicePartido(numVotavel);
+                if (partido >= 0) {
+                    incremento.adicionaLegenda(partido, quantidade);
+                } else {
+                    partidoDesconhecido += quantidade;
                 }
             }
         }
+        eleicao.aplica(incremento);
+
+        Metricas.adiciona(Metricas.Contador.VOTOS_INVALIDOS, invalidos);
+        Metricas.adiciona(Metricas.Contador.VOTOS_CANDIDATO_DESCONHECIDO, candidatoDesconhecido);
+        Metricas.adiciona(Metricas.Contador.VOTOS_PARTIDO_DESCONHECIDO, partidoDesconhecido);
+    }
+
+    /**
+     * Computa vários lotes de votos em paralelo, um lote por tarefa.
+     *
+     * @param lotes lotes de votos a serem computados
+     */
+    public void computaVotosParalelo(Collection<? extends Iterable<Voto>> lotes) {
+        lotes.parallelStream().forEach(this::computaVotos);
+    }
+
+    /**
+     * Computa um único voto em um incremento do chamador, obtido com
+     * {@link Eleicao#novoIncremento()}. Permite alimentar a contagem diretamente a partir da
+     * leitura em streaming sem publicar uma versão por voto: os votos só aparecem na eleição
+     * quando o chamador aplica o incremento com {@link Eleicao#aplica(IncrementoVotos)}, ao fim
+     * de cada lote ou da leitura.
+     *
+     * @param voto voto a ser computado
+     * @param incremento incremento do chamador, que não deve ser compartilhado entre threads
+     */
+    public void computaVoto(Voto voto, IncrementoVotos incremento) {
+        acumula(voto, incremento);
+    }
+
+    /**
+     * Soma um voto ao incremento, contando nas métricas os votos descartados.
+     *
+     * @param voto voto a ser computado
+     * @param incremento incremento da chamada atual
+     */
+    private void acumula(Voto voto, IncrementoVotos incremento) {
+        if (!isValido(voto)) {
+            Metricas.adiciona(Metricas.Contador.VOTOS_INVALIDOS, voto.getQuantidade());
+            return;
+        }
+
+        if (voto.isNominal()) {
+            Candidato candidato = eleicao.findCandidato(voto.getCodigoMunicipio(), voto.getNumVotavel());
+            int indice = candidato != null ? eleicao.getIndice(candidato) : -1;
+            if (indice >= 0) {
+                incremento.adicionaNominais(indice, voto.getQuantidade());
+            } else {
+                Metricas.adiciona(Metricas.Contador.VOTOS_CANDIDATO_DESCONHECIDO, voto.getQuantidade());
+            }
+        } else {
+            int partido = eleicao.findIndicePartido(voto.getNumVotavel());
+            if (partido >= 0) {
+                incremento.adicionaLegenda(partido, voto.getQuantidade());
+            } else {
+                Metricas.adiciona(Metricas.Contador.VOTOS_PARTIDO_DESCONHECIDO, voto.getQuantidade());
+            }
+        }
     }
 
     /**
      * Verifica se o voto está dentro dos parâmetros válidos.
      *
      * @param voto objeto Voto a ser validado
-     * @return true se o voto é válido; false caso contrário
+     * @return true se o voto é válido, para o cargo da eleição; false caso contrário
      */
-    private static boolean isValido(Voto voto) {
+    private boolean isValido(Voto voto) {
         boolean isNumValido = !(voto.getNumVotavel() >= 95 && voto.getNumVotavel() <= 98);
-        return voto.getCargo() == Cargo.VEREADOR && isNumValido;
+        return voto.getCargo() == eleicao.getCargo() && isNumValido;
+    }
+
+    /**
+     * Verifica se um voto de um lote colunar está dentro dos parâmetros válidos.
+     *
+     * @param codigoCargo código do cargo do voto
+     * @param numVotavel número votável
+     * @return true se o voto é válido; false caso contrário
+     */
+    private boolean isValido(int codigoCargo, int numVotavel) {
+        boolean isNumValido = !(numVotavel >= 95 && numVotavel <= 98);
+        return codigoCargo == eleicao.getCargo().getCodigo() && isNumValido;
     }
 }
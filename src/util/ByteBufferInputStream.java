@@ -0,0 +1,39 @@
+package util;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Adapta um ByteBuffer (por exemplo, uma região mapeada em memória) para InputStream,
+ * permitindo que o CSVTokenizer leia trechos de arquivos mapeados.
+ */
+public class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int lidos = Math.min(len, buffer.remaining());
+        buffer.get(b, off, lidos);
+        return lidos;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+}
@@ -0,0 +1,325 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Tokenizador de arquivos CSV no formato do TSE (campos entre aspas separados por ";",
+ * codificação ISO-8859-1) que opera diretamente sobre os bytes lidos.
+ * <p>
+ * Cada chamada a {@link #nextLine()} apenas registra o início e o fim de cada campo
+ * dentro do buffer, já sem aspas e espaços. Nenhuma String é criada até que o campo
+ * seja pedido com {@link #getString(int)}, e campos numéricos são convertidos direto
+ * dos bytes com {@link #getInt(int)}. Com {@link #setUltimaColuna(int)}, os campos
+ * posteriores à última coluna utilizada nem chegam a ser separados.
+ */
+public class CSVTokenizer implements Closeable {
+    private static final int TAMANHO_BUFFER = 1 << 16;
+    private static final byte SEPARADOR = ';';
+    private static final byte ASPAS = '"';
+    private static final byte FIM_LINHA = '\n';
+
+    private final InputStream in;
+    private byte[] buffer = new byte[TAMANHO_BUFFER];
+    private int limite;
+    private int posicao;
+    private boolean fimArquivo;
+    private int[] inicios = new int[64];
+    private int[] fins = new int[64];
+    private int numCampos;
+    private int ultimaColuna = Integer.MAX_VALUE;
+
+    public CSVTokenizer(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Limita a separação de campos até a coluna informada; o restante de cada linha
+     * é apenas percorrido até a quebra de linha.
+     *
+     * @param ultimaColuna índice da última coluna utilizada
+     */
+    public void setUltimaColuna(int ultimaColuna) {
+        this.ultimaColuna = ultimaColuna;
+    }
+
+    /**
+     * Avança para a próxima linha do arquivo, separando seus campos.
+     *
+     * @return true se uma linha foi lida; false ao final do arquivo
+     * @throws IOException se ocorrer erro na leitura
+     */
+    public boolean nextLine() throws IOException {
+        while (true) {
+            if (posicao >= limite && !preenche()) {
+                return false;
+            }
+            if (tokenizaLinha()) {
+                return true;
+            }
+            // A linha não coube no que restava do buffer: lê mais dados e tenta de novo.
+            if (!preenche()) {
+                fechaUltimaLinha();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Separa os campos da linha que começa em {@code posicao}.
+     *
+     * @return true se o fim da linha foi encontrado dentro do buffer
+     */
+    private boolean tokenizaLinha() {
+        byte[] buf = buffer;
+        int i = posicao;
+        int inicioCampo = i;
+        boolean entreAspas = false;
+        numCampos = 0;
+
+        while (i < limite) {
+            byte b = buf[i];
+            if (b == ASPAS) {
+                entreAspas = !entreAspas;
+            } else if (b == SEPARADOR && !entreAspas) {
+                adicionaCampo(inicioCampo, i);
+                if (numCampos > ultimaColuna) {
+                    return pulaRestoLinha(i + 1);
+                }
+                inicioCampo = i + 1;
+            } else if (b == FIM_LINHA) {
+                adicionaCampo(inicioCampo, i);
+                posicao = i + 1;
+                return true;
+            }
+            i++;
+        }
+        return false;
+    }
+
+    /**
+     * Avança até o fim da linha sem separar os campos restantes.
+     *
+     * @param i posição a partir da qual procurar a quebra de linha
+     * @return true se o fim da linha foi encontrado dentro do buffer
+     */
+    private boolean pulaRestoLinha(int i) {
+        byte[] buf = buffer;
+        while (i < limite) {
+            if (buf[i] == FIM_LINHA) {
+                posicao = i + 1;
+                return true;
+            }
+            i++;
+        }
+        return false;
+    }
+
+    /**
+     * Trata a última linha de um arquivo que não termina com quebra de linha.
+     */
+    private void fechaUltimaLinha() {
+        byte[] buf = buffer;
+        int inicioCampo = posicao;
+        boolean entreAspas = false;
+        numCampos = 0;
+
+        for (int i = posicao; i < limite; i++) {
+            if (buf[i] == ASPAS) {
+                entreAspas = !entreAspas;
+            } else if (buf[i] == SEPARADOR && !entreAspas) {
+                adicionaCampo(inicioCampo, i);
+                inicioCampo = i + 1;
+            }
+        }
+        adicionaCampo(inicioCampo, limite);
+        posicao = limite;
+    }
+
+    /**
+     * Registra um campo removendo aspas e espaços das extremidades.
+     */
+    private void adicionaCampo(int inicio, int fim) {
+        byte[] buf = buffer;
+        while (inicio < fim && (buf[fim - 1] & 0xFF) <= ' ') fim--;
+        while (inicio < fim && (buf[inicio] & 0xFF) <= ' ') inicio++;
+        if (inicio < fim && buf[inicio] == ASPAS) inicio++;
+        if (inicio < fim && buf[fim - 1] == ASPAS) fim--;
+        while (inicio < fim && (buf[fim - 1] & 0xFF) <= ' ') fim--;
+        while (inicio < fim && (buf[inicio] & 0xFF) <= ' ') inicio++;
+
+        if (numCampos == inicios.length) {
+            inicios = Arrays.copyOf(inicios, numCampos * 2);
+            fins = Arrays.copyOf(fins, numCampos * 2);
+        }
+        inicios[numCampos] = inicio;
+        fins[numCampos] = fim;
+        numCampos++;
+    }
+
+    /**
+     * Move a linha incompleta para o início do buffer e lê mais bytes do arquivo,
+     * aumentando o buffer quando uma única linha não cabe nele.
+     *
+     * @return true se novos bytes foram lidos
+     */
+    private boolean preenche() throws IOException {
+        if (fimArquivo) {
+            return false;
+        }
+
+        int restante = limite - posicao;
+        if (posicao == 0 && restante == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        } else if (restante > 0) {
+            System.arraycopy(buffer, posicao, buffer, 0, restante);
+        }
+        posicao = 0;
+        limite = restante;
+
+        int lidos = in.read(buffer, limite, buffer.length - limite);
+        if (lidos < 0) {
+            fimArquivo = true;
+            return false;
+        }
+        limite += lidos;
+        return true;
+    }
+
+    /**
+     * Retorna o número de campos da linha atual.
+     *
+     * @return número de campos
+     */
+    public int getNumCampos() {
+        return numCampos;
+    }
+
+    /**
+     * Retorna o conteúdo do campo como String.
+     *
+     * @param campo índice do campo
+     * @return o conteúdo do campo, sem aspas e espaços
+     */
+    public String getString(int campo) {
+        verificaCampo(campo);
+        return new String(buffer, inicios[campo], fins[campo] - inicios[campo], StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Retorna uma cópia dos bytes do campo.
+     *
+     * @param campo índice do campo
+     * @return os bytes do campo, sem aspas e espaços
+     */
+    public byte[] getBytes(int campo) {
+        verificaCampo(campo);
+        return Arrays.copyOfRange(buffer, inicios[campo], fins[campo]);
+    }
+
+    /**
+     * Converte o campo em inteiro diretamente a partir dos bytes.
+     *
+     * @param campo índice do campo
+     * @return o valor inteiro do campo
+     * @throws NumberFormatException se o campo não for um inteiro válido ou não couber em int
+     */
+    public int getInt(int campo) {
+        verificaCampo(campo);
+        return parseInt(inicios[campo], fins[campo]);
+    }
+
+    /**
+     * Converte um campo no formato dd/MM/yyyy em data.
+     *
+     * @param campo índice do campo
+     * @return a data correspondente
+     * @throws NumberFormatException se o campo não estiver no formato esperado
+     */
+    public LocalDate getData(int campo) {
+        verificaCampo(campo);
+        int inicio = inicios[campo];
+        if (fins[campo] - inicio != 10 || buffer[inicio + 2] != '/' || buffer[inicio + 5] != '/') {
+            throw new NumberFormatException("Data inválida: \"" + getString(campo) + "\"");
+        }
+        int dia = parseInt(inicio, inicio + 2);
+        int mes = parseInt(inicio + 3, inicio + 5);
+        int ano = parseInt(inicio + 6, inicio + 10);
+        return LocalDate.of(ano, mes, dia);
+    }
+
+    /**
+     * Compara o campo com uma sequência de bytes sem criar Strings.
+     *
+     * @param campo índice do campo
+     * @param valor bytes em ISO-8859-1 a serem comparados
+     * @return true se o conteúdo do campo é igual ao valor
+     */
+    public boolean campoIgual(int campo, byte[] valor) {
+        verificaCampo(campo);
+        int inicio = inicios[campo];
+        int tamanho = fins[campo] - inicio;
+        if (tamanho != valor.length) {
+            return false;
+        }
+        for (int i = 0; i < tamanho; i++) {
+            if (buffer[inicio + i] != valor[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converte os bytes em inteiro como {@link Integer#parseInt(String)}, rejeitando valores
+     * fora do intervalo de int. O valor é acumulado em negativo, para que Integer.MIN_VALUE
+     * também seja aceito.
+     */
+    private int parseInt(int inicio, int fim) {
+        boolean negativo = false;
+        int i = inicio;
+        if (i < fim && buffer[i] == '-') {
+            negativo = true;
+            i++;
+        }
+        if (i == fim) {
+            throw inteiroInvalido(inicio, fim);
+        }
+
+        int limiteValor = negativo ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int limiteMultiplicacao = limiteValor / 10;
+        int valor = 0;
+        for (; i < fim; i++) {
+            int digito = buffer[i] - '0';
+            if (digito < 0 || digito > 9 || valor < limiteMultiplicacao) {
+                throw inteiroInvalido(inicio, fim);
+            }
+            valor *= 10;
+            if (valor < limiteValor + digito) {
+                throw inteiroInvalido(inicio, fim);
+            }
+            valor -= digito;
+        }
+        return negativo ? valor : -valor;
+    }
+
+    private NumberFormatException inteiroInvalido(int inicio, int fim) {
+        return new NumberFormatException("Inteiro inválido: \"" + new String(buffer, inicio, fim - inicio,
+            StandardCharsets.ISO_8859_1) + "\"");
+    }
+
+    private void verificaCampo(int campo) {
+        if (campo >= numCampos) {
+            throw new IndexOutOfBoundsException("Campo " + campo + " inexistente na linha (" + numCampos + " campos)");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
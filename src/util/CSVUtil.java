@@ -1,53 +1,136 @@
 package util;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 /**
  * Utilitário para operações com arquivos CSV.
+ * <p>
+ * Além de arquivos CSV comuns, lê diretamente arquivos compactados, como publicados pelo TSE:
+ * {@code arquivo.csv.gz} e {@code arquivo.zip}, do qual é lida a primeira entrada .csv, ou a
+ * entrada indicada após um "!" ({@code arquivo.zip!entrada.csv}). A descompressão é feita em
+ * uma thread separada, em paralelo com a leitura.
  */
 public class CSVUtil {
+    private static final String SEPARADOR_ENTRADA = "!";
 
     /**
-     * Retorna um BufferedReader para o arquivo CSV com codificação ISO-8859-1.
+     * Retorna um tokenizador para o arquivo CSV, que lê os bytes em ISO-8859-1 diretamente.
      *
-     * @param filePath caminho do arquivo CSV
-     * @return BufferedReader para leitura do arquivo
+     * @param filePath caminho do arquivo CSV, compactado ou não
+     * @return CSVTokenizer para leitura do arquivo
      * @throws IOException se ocorrer erro na leitura
      */
-    public static BufferedReader getReader(String filePath) throws IOException {
-        return Files.newBufferedReader(Paths.get(filePath), StandardCharsets.ISO_8859_1);
+    public static CSVTokenizer getTokenizer(String filePath) throws IOException {
+        return new CSVTokenizer(abre(filePath));
+    }
+
+    /**
+     * Abre o conteúdo do arquivo CSV, descompactando-o se necessário.
+     *
+     * @param filePath caminho do arquivo CSV, compactado ou não
+     * @return stream com os bytes do CSV
+     * @throws IOException se ocorrer erro na leitura ou o zip não tiver a entrada
+     */
+    public static InputStream abre(String filePath) throws IOException {
+        Path arquivo = getArquivo(filePath);
+        String nome = arquivo.getFileName().toString().toLowerCase(Locale.ROOT);
+
+        if (nome.endsWith(".gz")) {
+            InputStream in = new GZIPInputStream(Files.newInputStream(arquivo), 1 << 16);
+            return new LeituraAssincrona(in, arquivo.getFileName().toString());
+        }
+        if (nome.endsWith(".zip")) {
+            ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(arquivo), 1 << 16));
+            String entrada = getEntrada(filePath);
+            try {
+                for (ZipEntry e = zip.getNextEntry(); e != null; e = zip.getNextEntry()) {
+                    boolean procurada = entrada != null
+                        ? e.getName().equals(entrada)
+                        : e.getName().toLowerCase(Locale.ROOT).endsWith(".csv");
+                    if (!e.isDirectory() && procurada) {
+                        return new LeituraAssincrona(zip, e.getName());
+                    }
+                }
+            } catch (IOException e) {
+                zip.close();
+                throw e;
+            }
+            zip.close();
+            throw new IOException("Entrada " + (entrada != null ? entrada : ".csv") + " não encontrada em " + arquivo);
+        }
+        return Files.newInputStream(arquivo);
+    }
+
+    /**
+     * Indica se o arquivo é compactado e, portanto, só pode ser lido em sequência.
+     *
+     * @param filePath caminho do arquivo CSV
+     * @return true para arquivos .gz e .zip
+     */
+    public static boolean isCompactado(String filePath) {
+        String nome = getArquivo(filePath).getFileName().toString().toLowerCase(Locale.ROOT);
+        return nome.endsWith(".gz") || nome.endsWith(".zip");
     }
 
     /**
-     * Realiza o parse da linha de cabeçalho e mapeia os nomes de campos com seus índices.
+     * Retorna o arquivo em disco, sem a indicação de entrada de um zip.
      *
-     * @param headerLine linha de cabeçalho do CSV
+     * @param filePath caminho do arquivo CSV
+     * @return caminho do arquivo
+     */
+    public static Path getArquivo(String filePath) {
+        int separador = filePath.toLowerCase(Locale.ROOT).lastIndexOf(".zip" + SEPARADOR_ENTRADA);
+        return Paths.get(separador < 0 ? filePath : filePath.substring(0, separador + 4));
+    }
+
+    private static String getEntrada(String filePath) {
+        int separador = filePath.toLowerCase(Locale.ROOT).lastIndexOf(".zip" + SEPARADOR_ENTRADA);
+        return separador < 0 ? null : filePath.substring(separador + 5);
+    }
+
+    /**
+     * Lê a linha de cabeçalho e mapeia os nomes de campos com seus índices.
+     *
+     * @param tokenizer tokenizador posicionado no início do arquivo
      * @return mapa contendo nomes de campos e seus respectivos índices
+     * @throws IOException se ocorrer erro na leitura ou o arquivo estiver vazio
      */
-    public static Map<String, Integer> parseHeader(String headerLine) {
+    public static Map<String, Integer> parseHeader(CSVTokenizer tokenizer) throws IOException {
+        if (!tokenizer.nextLine()) {
+            throw new IOException("Arquivo sem cabeçalho");
+        }
+
         Map<String, Integer> map = new HashMap<>();
-        String[] headers = headerLine.split(";");
-        for (int i = 0; i < headers.length; i++) {
-            headers[i] = headers[i].replace("\"", "").trim();
-            map.put(headers[i], i);
+        for (int i = 0; i < tokenizer.getNumCampos(); i++) {
+            map.put(tokenizer.getString(i), i);
         }
         return map;
     }
-    
+
     /**
-     * Remove aspas e espaços dos campos de uma linha.
+     * Retorna o índice de uma coluna obrigatória do cabeçalho.
      *
-     * @param fields array de campos extraídos do CSV
+     * @param headerIndexMap mapeamento de cabeçalhos para índice
+     * @param coluna nome da coluna
+     * @return índice da coluna
+     * @throws IOException se a coluna não existir no arquivo
      */
-    public static void cleanFields(String[] fields) {
-        for (int i = 0; i < fields.length; i++) {
-            fields[i] = fields[i].replace("\"", "").trim();
+    public static int getIndice(Map<String, Integer> headerIndexMap, String coluna) throws IOException {
+        Integer indice = headerIndexMap.get(coluna);
+        if (indice == null) {
+            throw new IOException("Coluna " + coluna + " não encontrada no cabeçalho");
         }
+        return indice;
     }
-}
\ No newline at end of file
+}
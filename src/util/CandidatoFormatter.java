@@ -4,19 +4,21 @@ import java.text.NumberFormat;
 import java.util.Locale;
 
 import domain.Candidato;
+import domain.ResultadoCandidato;
 
 /**
- * Classe utilitária para formatação de objetos Candidato.
+ * Classe utilitária para formatação de candidatos.
  */
 public class CandidatoFormatter {
 
     /**
-     * Formata as informações de um Candidato para exibição.
+     * Formata as informações do resultado de um candidato para exibição.
      *
-     * @param candidato objeto Candidato a ser formatado
+     * @param resultado resultado do candidato a ser formatado
      * @return String formatada com informações do candidato
      */
-    public static String format(Candidato candidato) {
+    public static String format(ResultadoCandidato resultado) {
+        Candidato candidato = resultado.getCandidato();
         NumberFormat nf = NumberFormat.getInstance(Locale.forLanguageTag("pt-BR"));
         boolean participaFederacao = candidato.getNumFederacao() != -1;
 
@@ -24,7 +26,7 @@ public class CandidatoFormatter {
             participaFederacao ? "*" : "",
             candidato.getNomeUrna().toUpperCase(),
             candidato.getPartido().getSigla(),
-            nf.format(candidato.getNumVotos())
+            nf.format(resultado.getNumVotos())
         );
     }
 }
@@ -0,0 +1,66 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dicionário que associa cada valor distinto a um identificador inteiro denso (0, 1, 2, ...),
+ * permitindo usar códigos textuais como chaves primitivas. Seguro para uso concorrente.
+ */
+public class Dicionario {
+    /** Dicionário compartilhado dos códigos de município. */
+    public static final Dicionario MUNICIPIOS = new Dicionario();
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> valores = new ArrayList<>();
+
+    /**
+     * Retorna o identificador do valor, cadastrando-o se ainda não existir.
+     *
+     * @param valor valor a ser codificado
+     * @return identificador do valor
+     */
+    public int getId(String valor) {
+        Integer id = ids.get(valor);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (this) {
+            id = ids.get(valor);
+            if (id == null) {
+                id = valores.size();
+                valores.add(valor);
+                ids.put(valor, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Retorna o identificador do valor sem cadastrá-lo.
+     *
+     * @param valor valor procurado
+     * @return identificador do valor ou -1 se não estiver cadastrado
+     */
+    public int findId(String valor) {
+        Integer id = ids.get(valor);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Retorna o valor associado a um identificador.
+     *
+     * @param id identificador
+     * @return o valor correspondente
+     */
+    public synchronized String getValor(int id) {
+        return valores.get(id);
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,42 @@
+package util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntPredicate;
+
+/**
+ * Filtro aplicado sobre a linha atual de um CSVTokenizer antes que seus campos sejam convertidos.
+ */
+@FunctionalInterface
+public interface FiltroCSV {
+
+    /**
+     * Verifica se a linha atual deve ser processada.
+     *
+     * @param linha tokenizador posicionado na linha
+     * @return true se a linha atende ao filtro
+     */
+    boolean aceita(CSVTokenizer linha);
+
+    /**
+     * Cria um filtro que compara os bytes do campo com um valor, sem criar Strings.
+     *
+     * @param coluna índice da coluna
+     * @param valor valor esperado
+     * @return o filtro
+     */
+    static FiltroCSV igual(int coluna, String valor) {
+        byte[] bytes = valor.getBytes(StandardCharsets.ISO_8859_1);
+        return linha -> linha.campoIgual(coluna, bytes);
+    }
+
+    /**
+     * Cria um filtro sobre o valor inteiro de um campo.
+     *
+     * @param coluna índice da coluna
+     * @param predicado condição sobre o valor do campo
+     * @return o filtro
+     */
+    static FiltroCSV inteiro(int coluna, IntPredicate predicado) {
+        return linha -> predicado.test(linha.getInt(coluna));
+    }
+}
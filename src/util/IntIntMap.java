@@ -0,0 +1,140 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de chaves int para valores int com endereçamento aberto e sondagem linear,
+ * sem objetos por entrada. Usado como acumulador de somas nos caminhos quentes de leitura.
+ */
+public class IntIntMap {
+    private static final int VAZIO = Integer.MIN_VALUE;
+
+    private int[] chaves;
+    private int[] valores;
+    private int tamanho;
+
+    public IntIntMap() {
+        this(64);
+    }
+
+    public IntIntMap(int capacidadeInicial) {
+        int capacidade = Integer.highestOneBit(Math.max(4, capacidadeInicial * 2 - 1));
+        chaves = new int[capacidade];
+        valores = new int[capacidade];
+        Arrays.fill(chaves, VAZIO);
+    }
+
+    /**
+     * Soma um valor ao associado à chave, criando a entrada se necessário.
+     *
+     * @param chave chave da entrada (não pode ser Integer.MIN_VALUE)
+     * @param valor valor a ser somado
+     */
+    public void adiciona(int chave, int valor) {
+        if (chave == VAZIO) {
+            throw new IllegalArgumentException("Chave inválida: " + chave);
+        }
+
+        int mascara = chaves.length - 1;
+        int i = espalha(chave) & mascara;
+        while (chaves[i] != VAZIO) {
+            if (chaves[i] == chave) {
+                valores[i] += valor;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+
+        chaves[i] = chave;
+        valores[i] = valor;
+        if (++tamanho * 2 > chaves.length) {
+            redimensiona();
+        }
+    }
+
+    /**
+     * Retorna o valor associado à chave.
+     *
+     * @param chave chave procurada
+     * @return o valor ou 0 se a chave não existir
+     */
+    public int get(int chave) {
+        int mascara = chaves.length - 1;
+        int i = espalha(chave) & mascara;
+        while (chaves[i] != VAZIO) {
+            if (chaves[i] == chave) {
+                return valores[i];
+            }
+            i = (i + 1) & mascara;
+        }
+        return 0;
+    }
+
+    /**
+     * Soma todas as entradas de outro mapa a este.
+     *
+     * @param outro mapa a ser combinado
+     */
+    public void adicionaTodos(IntIntMap outro) {
+        for (int i = 0; i < outro.chaves.length; i++) {
+            if (outro.chaves[i] != VAZIO) {
+                adiciona(outro.chaves[i], outro.valores[i]);
+            }
+        }
+    }
+
+    /**
+     * Percorre todas as entradas do mapa.
+     *
+     * @param visitante função chamada para cada par chave/valor
+     */
+    public void forEach(Visitante visitante) {
+        for (int i = 0; i < chaves.length; i++) {
+            if (chaves[i] != VAZIO) {
+                visitante.visita(chaves[i], valores[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    /**
+     * Remove todas as entradas, mantendo a capacidade alocada.
+     */
+    public void limpa() {
+        if (tamanho > 0) {
+            Arrays.fill(chaves, VAZIO);
+            tamanho = 0;
+        }
+    }
+
+    private void redimensiona() {
+        int[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+        chaves = new int[chavesAntigas.length * 2];
+        valores = new int[chavesAntigas.length * 2];
+        Arrays.fill(chaves, VAZIO);
+        tamanho = 0;
+
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] != VAZIO) {
+                adiciona(chavesAntigas[i], valoresAntigos[i]);
+            }
+        }
+    }
+
+    private static int espalha(int chave) {
+        int h = chave * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Função de visita das entradas do mapa.
+     */
+    @FunctionalInterface
+    public interface Visitante {
+        void visita(int chave, int valor);
+    }
+}
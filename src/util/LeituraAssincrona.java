@@ -0,0 +1,129 @@
+package util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * InputStream que lê outro stream em uma thread separada, em blocos, entregues por uma fila
+ * limitada. Usado na descompressão: enquanto o leitor processa um bloco, a thread já está
+ * descompactando os próximos, e a fila limita a memória usada quando o leitor é mais lento.
+ * <p>
+ * Erros de leitura da thread são relançados para o leitor ao chegar ao bloco em que ocorreram.
+ */
+public class LeituraAssincrona extends InputStream {
+    private static final int TAMANHO_BLOCO = 1 << 18;
+    private static final int NUM_BLOCOS = 8;
+    private static final byte[] FIM = new byte[0];
+
+    private final InputStream origem;
+    private final BlockingQueue<byte[]> blocos = new ArrayBlockingQueue<>(NUM_BLOCOS);
+    private final Thread leitor;
+    private volatile IOException erro;
+    private byte[] atual = new byte[0];
+    private int posicao;
+    private boolean terminado;
+
+    /**
+     * Inicia a leitura do stream em uma nova thread.
+     *
+     * @param origem stream a ser lido; é fechado pela thread ao terminar
+     * @param nome nome usado na thread, para diagnóstico
+     */
+    public LeituraAssincrona(InputStream origem, String nome) {
+        this.origem = origem;
+        this.leitor = new Thread(this::le, "leitura-" + nome);
+        this.leitor.setDaemon(true);
+        this.leitor.start();
+    }
+
+    private void le() {
+        try (InputStream in = origem) {
+            while (true) {
+                byte[] bloco = new byte[TAMANHO_BLOCO];
+                int lidos = in.readNBytes(bloco, 0, bloco.length);
+                if (lidos > 0) {
+                    blocos.put(lidos == bloco.length ? bloco : Arrays.copyOf(bloco, lidos));
+                }
+                if (lidos < bloco.length) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            erro = e;
+        } catch (InterruptedException e) {
+            // Leitura cancelada pelo close().
+            return;
+        }
+
+        try {
+            blocos.put(FIM);
+        } catch (InterruptedException e) {
+            // Leitura cancelada pelo close().
+        }
+    }
+
+    /**
+     * Avança para o próximo bloco quando o atual foi consumido.
+     *
+     * @return false se não há mais dados
+     */
+    private boolean proximoBloco() throws IOException {
+        if (terminado) {
+            return false;
+        }
+        while (posicao >= atual.length) {
+            try {
+                atual = blocos.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Leitura interrompida");
+            }
+            posicao = 0;
+            if (atual == FIM) {
+                terminado = true;
+                if (erro != null) {
+                    throw new IOException(erro.getMessage(), erro);
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!proximoBloco()) {
+            return -1;
+        }
+        return atual[posicao++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!proximoBloco()) {
+            return -1;
+        }
+        int n = Math.min(len, atual.length - posicao);
+        System.arraycopy(atual, posicao, b, off, n);
+        posicao += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        terminado = true;
+        leitor.interrupt();
+        try {
+            leitor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
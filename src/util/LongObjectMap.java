@@ -0,0 +1,116 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mapa de chaves long para objetos com endereçamento aberto e sondagem linear.
+ * As buscas não alocam objetos, ao contrário de um HashMap com chaves boxed ou concatenadas.
+ *
+ * @param <V> tipo dos valores
+ */
+public class LongObjectMap<V> {
+    private long[] chaves;
+    private V[] valores;
+    private int tamanho;
+
+    public LongObjectMap() {
+        this(16);
+    }
+
+    @SuppressWarnings("unchecked")
+    public LongObjectMap(int capacidadeInicial) {
+        int capacidade = Integer.highestOneBit(Math.max(4, capacidadeInicial * 2 - 1));
+        chaves = new long[capacidade];
+        valores = (V[]) new Object[capacidade];
+    }
+
+    /**
+     * Associa um valor à chave.
+     *
+     * @param chave chave da entrada
+     * @param valor valor não nulo
+     * @return o valor anteriormente associado à chave, ou null
+     */
+    public V put(long chave, V valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("Valor não pode ser nulo");
+        }
+
+        int mascara = chaves.length - 1;
+        int i = espalha(chave) & mascara;
+        while (valores[i] != null) {
+            if (chaves[i] == chave) {
+                V anterior = valores[i];
+                valores[i] = valor;
+                return anterior;
+            }
+            i = (i + 1) & mascara;
+        }
+
+        chaves[i] = chave;
+        valores[i] = valor;
+        if (++tamanho * 2 > chaves.length) {
+            redimensiona();
+        }
+        return null;
+    }
+
+    /**
+     * Retorna o valor associado à chave.
+     *
+     * @param chave chave procurada
+     * @return o valor ou null se a chave não existir
+     */
+    public V get(long chave) {
+        int mascara = chaves.length - 1;
+        int i = espalha(chave) & mascara;
+        V valor;
+        while ((valor = valores[i]) != null) {
+            if (chaves[i] == chave) {
+                return valor;
+            }
+            i = (i + 1) & mascara;
+        }
+        return null;
+    }
+
+    /**
+     * Retorna uma lista com todos os valores do mapa.
+     *
+     * @return lista de valores
+     */
+    public List<V> values() {
+        List<V> lista = new ArrayList<>(tamanho);
+        for (V valor : valores) {
+            if (valor != null) {
+                lista.add(valor);
+            }
+        }
+        return lista;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void redimensiona() {
+        long[] chavesAntigas = chaves;
+        V[] valoresAntigos = valores;
+        chaves = new long[chavesAntigas.length * 2];
+        valores = (V[]) new Object[chavesAntigas.length * 2];
+        tamanho = 0;
+
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (valoresAntigos[i] != null) {
+                put(chavesAntigas[i], valoresAntigos[i]);
+            }
+        }
+    }
+
+    private static int espalha(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
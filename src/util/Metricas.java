@@ -0,0 +1,238 @@
+package util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Métricas da execução: o tempo de cada fase (leitura, contagem, seções do relatório) e
+ * contadores de linhas e votos processados, compartilhados por todas as threads.
+ * <p>
+ * Os contadores são LongAdders e os leitores somam contagens locais uma vez por trecho lido,
+ * de modo que a coleta não pesa nos laços críticos. Fases executadas várias vezes, inclusive
+ * em paralelo, têm o tempo acumulado. Cada fase também gera um evento do JFR, registrado
+ * apenas quando há uma gravação ativa.
+ * <p>
+ * Com a propriedade {@code -Deleicao.metricas=<arquivo>} (ou {@code stderr}), as métricas são
+ * gravadas em JSON ao final da execução por {@link #gravaSeHabilitado()}.
+ */
+public class Metricas {
+
+    /**
+     * Contadores disponíveis.
+     */
+    public enum Contador {
+        LINHAS_CANDIDATOS,
+        LINHAS_VOTOS,
+        LINHAS_FILTRADAS_MUNICIPIO,
+        LINHAS_FILTRADAS_CARGO,
+        VOTOS_INVALIDOS,
+        VOTOS_CANDIDATO_DESCONHECIDO,
+        VOTOS_PARTIDO_DESCONHECIDO,
+        LEITURAS_CACHE_CANDIDATOS,
+        LEITURAS_CACHE_VOTOS
+    }
+
+    private static final LongAdder[] contadores = new LongAdder[Contador.values().length];
+    // Fases na ordem da primeira execução: tempo acumulado em ns e número de execuções.
+    private static final Map<String, long[]> fases = new LinkedHashMap<>();
+
+    static {
+        for (int i = 0; i < contadores.length; i++) {
+            contadores[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Soma um valor a um contador.
+     *
+     * @param contador contador a ser incrementado
+     * @param valor valor a somar
+     */
+    public static void adiciona(Contador contador, long valor) {
+        if (valor != 0) {
+            contadores[contador.ordinal()].add(valor);
+        }
+    }
+
+    /**
+     * Retorna o valor atual de um contador.
+     *
+     * @param contador contador desejado
+     * @return soma dos valores adicionados
+     */
+    public static long get(Contador contador) {
+        return contadores[contador.ordinal()].sum();
+    }
+
+    /**
+     * Mede a execução de uma tarefa como uma fase.
+     *
+     * @param nome nome da fase
+     * @param tarefa tarefa a ser executada
+     */
+    public static void mede(String nome, Runnable tarefa) {
+        mede(nome, () -> {
+            tarefa.run();
+            return null;
+        });
+    }
+
+    /**
+     * Mede a execução de uma tarefa que produz um valor como uma fase:
+     * {@code Set<Candidato> candidatos = Metricas.mede("leitura_candidatos", () -> ...)}.
+     *
+     * @param <T> tipo do valor produzido
+     * @param nome nome da fase
+     * @param tarefa tarefa a ser executada
+     * @return o valor produzido pela tarefa
+     */
+    public static <T> T mede(String nome, Supplier<T> tarefa) {
+        Fase fase = new Fase(nome);
+        try {
+            return tarefa.get();
+        } finally {
+            fase.encerra();
+        }
+    }
+
+    /**
+     * Retorna o tempo acumulado de uma fase.
+     *
+     * @param nome nome da fase
+     * @return tempo em nanossegundos, ou 0 se a fase não foi executada
+     */
+    public static synchronized long getTempo(String nome) {
+        long[] fase = fases.get(nome);
+        return fase != null ? fase[0] : 0;
+    }
+
+    private static synchronized void registra(String nome, long duracao) {
+        long[] fase = fases.computeIfAbsent(nome, n -> new long[2]);
+        fase[0] += duracao;
+        fase[1]++;
+    }
+
+    /**
+     * Zera todos os contadores e tempos.
+     */
+    public static synchronized void reinicia() {
+        for (LongAdder contador : contadores) {
+            contador.reset();
+        }
+        fases.clear();
+    }
+
+    /**
+     * Escreve as métricas em JSON: tempo e execuções de cada fase, contadores e a vazão
+     * das leituras em linhas por segundo, informada apenas para os arquivos que foram lidos
+     * do CSV e não do cache.
+     *
+     * @param saida destino do JSON
+     */
+    public static synchronized void imprime(Writer saida) {
+        PrintWriter json = new PrintWriter(saida);
+        json.println("{");
+        json.println("  \"fases\": {");
+        int i = 0;
+        for (Map.Entry<String, long[]> fase : fases.entrySet()) {
+            json.printf(Locale.ROOT, "    \"%s\": {\"ms\": %.3f, \"execucoes\": %d}%s%n",
+                fase.getKey(), fase.getValue()[0] / 1e6, fase.getValue()[1], ++i < fases.size() ? "," : "");
+        }
+        json.println("  },");
+
+        json.println("  \"contadores\": {");
+        List<String> valores = new ArrayList<>();
+        for (Contador contador : Contador.values()) {
+            valores.add(String.format("\"%s\": %d", contador.name().toLowerCase(Locale.ROOT), get(contador)));
+        }
+        // A vazão só faz sentido quando o CSV foi de fato lido, e não o cache.
+        if (get(Contador.LEITURAS_CACHE_CANDIDATOS) == 0 && getTempo("leitura_candidatos") > 0) {
+            valores.add(String.format(Locale.ROOT, "\"linhas_candidatos_por_segundo\": %.1f",
+                porSegundo(Contador.LINHAS_CANDIDATOS, "leitura_candidatos")));
+        }
+        if (get(Contador.LEITURAS_CACHE_VOTOS) == 0 && getTempo("leitura_votos") > 0) {
+            valores.add(String.format(Locale.ROOT, "\"linhas_votos_por_segundo\": %.1f",
+                porSegundo(Contador.LINHAS_VOTOS, "leitura_votos")));
+        }
+        i = 0;
+        for (String valor : valores) {
+            json.printf("    %s%s%n", valor, ++i < valores.size() ? "," : "");
+        }
+        json.println("  }");
+        json.println("}");
+        json.flush();
+    }
+
+    private static double porSegundo(Contador contador, String fase) {
+        return get(contador) * 1e9 / getTempo(fase);
+    }
+
+    /**
+     * Grava as métricas no destino da propriedade {@code eleicao.metricas}, se definida.
+     */
+    public static void gravaSeHabilitado() {
+        String destino = System.getProperty("eleicao.metricas");
+        if (destino == null || destino.isEmpty()) {
+            return;
+        }
+
+        if (destino.equalsIgnoreCase("stderr")) {
+            imprime(new PrintWriter(System.err));
+            return;
+        }
+        try (Writer saida = Files.newBufferedWriter(Paths.get(destino))) {
+            imprime(saida);
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar métricas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fase em andamento; o tempo é registrado ao encerrar.
+     */
+    private static class Fase {
+        private final String nome;
+        private final long inicio;
+        private final EventoFase evento = new EventoFase();
+
+        private Fase(String nome) {
+            this.nome = nome;
+            evento.begin();
+            this.inicio = System.nanoTime();
+        }
+
+        void encerra() {
+            registra(nome, System.nanoTime() - inicio);
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.fase = nome;
+                evento.commit();
+            }
+        }
+    }
+
+    @Name("eleicao.Fase")
+    @Label("Fase da apuração")
+    @Category("Eleição")
+    @Description("Duração de uma fase da leitura, contagem ou relatório")
+    static class EventoFase extends Event {
+        @Label("Fase")
+        String fase;
+    }
+}
@@ -4,28 +4,30 @@ import java.text.NumberFormat;
 import java.util.Locale;
 
 import domain.Partido;
+import domain.ResultadoPartido;
 
 /**
- * Classe utilitária para formatação de objetos Partido.
+ * Classe utilitária para formatação de partidos.
  */
 public class PartidoFormatter {
 
     /**
-     * Formata as informações de um Partido para exibição.
+     * Formata as informações do resultado de um partido para exibição.
      *
-     * @param partido objeto Partido a ser formatado
+     * @param resultado resultado do partido a ser formatado
      * @return String formatada com informações do partido
      */
-    public static String format(Partido partido) {
+    public static String format(ResultadoPartido resultado) {
+        Partido partido = resultado.getPartido();
         NumberFormat nf = NumberFormat.getInstance(Locale.forLanguageTag("pt-BR"));
-        String totalVotosStr = nf.format(partido.getNumVotosTotais());
-        String votosNominaisStr = nf.format(partido.getNumVotosNominais());
-        String votosLegendaStr = nf.format(partido.getNumVotosLegenda());
+        String totalVotosStr = nf.format(resultado.getNumVotosTotais());
+        String votosNominaisStr = nf.format(resultado.getNumVotosNominais());
+        String votosLegendaStr = nf.format(resultado.getNumVotosLegenda());
 
-        String pluralTotal = partido.getNumVotosTotais() > 1 ? " votos" : " voto";
-        String pluralNominal = partido.getNumVotosNominais() > 1 ? " nominais" : " nominal";
+        String pluralTotal = resultado.getNumVotosTotais() > 1 ? " votos" : " voto";
+        String pluralNominal = resultado.getNumVotosNominais() > 1 ? " nominais" : " nominal";
         String legendaTexto = " de legenda";
-        String pluralEleitos = partido.getCandidatosEleitos().size() > 1 ? " candidatos eleitos" : " candidato eleito";
+        String pluralEleitos = resultado.getNumEleitos() > 1 ? " candidatos eleitos" : " candidato eleito";
 
         return String.format("%s - %d, %s%s (%s%s e %s%s), %d%s",
             partido.getSigla(),
@@ -33,7 +35,7 @@ public class PartidoFormatter {
             totalVotosStr, pluralTotal,
             votosNominaisStr, pluralNominal,
             votosLegendaStr, legendaTexto,
-            partido.getCandidatosEleitos().size(), pluralEleitos
+            resultado.getNumEleitos(), pluralEleitos
         );
     }
 }
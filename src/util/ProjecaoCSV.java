@@ -0,0 +1,82 @@
+package util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declara as colunas de um CSV que um leitor utiliza e os filtros que as linhas devem atender.
+ * <p>
+ * O tokenizador só separa os campos até a última coluna declarada, e os filtros são avaliados
+ * na ordem em que foram adicionados, de modo que os mais baratos e seletivos devem vir primeiro.
+ * Os campos projetados só precisam ser convertidos para as linhas aceitas.
+ */
+public class ProjecaoCSV {
+    private final Map<String, Integer> headerIndexMap;
+    private final List<FiltroCSV> filtros = new ArrayList<>();
+    private int ultimaColuna = -1;
+
+    public ProjecaoCSV(Map<String, Integer> headerIndexMap) {
+        this.headerIndexMap = headerIndexMap;
+    }
+
+    /**
+     * Declara uma coluna utilizada pelo leitor.
+     *
+     * @param nome nome da coluna no cabeçalho
+     * @return índice da coluna
+     * @throws IOException se a coluna não existir no arquivo
+     */
+    public int coluna(String nome) throws IOException {
+        int indice = CSVUtil.getIndice(headerIndexMap, nome);
+        ultimaColuna = Math.max(ultimaColuna, indice);
+        return indice;
+    }
+
+    /**
+     * Adiciona um filtro às linhas. Os filtros são avaliados na ordem em que foram adicionados.
+     *
+     * @param filtro filtro a ser adicionado
+     * @return índice do filtro, como retornado por {@link #recusa(CSVTokenizer)}
+     */
+    public int filtro(FiltroCSV filtro) {
+        filtros.add(filtro);
+        return filtros.size() - 1;
+    }
+
+    /**
+     * Configura o tokenizador para separar apenas as colunas declaradas.
+     *
+     * @param tokenizer tokenizador do arquivo
+     */
+    public void aplica(CSVTokenizer tokenizer) {
+        tokenizer.setUltimaColuna(ultimaColuna);
+    }
+
+    /**
+     * Verifica se a linha atual atende a todos os filtros.
+     *
+     * @param tokenizer tokenizador posicionado na linha
+     * @return true se a linha deve ser processada
+     */
+    public boolean aceita(CSVTokenizer tokenizer) {
+        return recusa(tokenizer) < 0;
+    }
+
+    /**
+     * Identifica o primeiro filtro que a linha atual não atende, para que o leitor possa
+     * contar as linhas descartadas por cada filtro.
+     *
+     * @param tokenizer tokenizador posicionado na linha
+     * @return índice do filtro que recusou a linha, ou -1 se ela deve ser processada
+     */
+    public int recusa(CSVTokenizer tokenizer) {
+        for (int i = 0; i < filtros.size(); i++) {
+            if (!filtros.get(i).aceita(tokenizer)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,117 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Cache binário dos votos: um cache truncado ou corrompido deve ser ignorado e regravado, e a
+ * contagem gravada para um único município não pode servir a uma leitura de todos.
+ */
+class CacheBinarioTest {
+    private static final String CABECALHO =
+        "\"CD_MUNICIPIO\";\"NM_MUNICIPIO\";\"CD_CARGO\";\"NR_VOTAVEL\";\"QT_VOTOS\"\r\n";
+
+    @Test
+    void cacheTruncadoEhRegravado() throws IOException {
+        Path diretorio = Files.createTempDirectory("cache-votos");
+        try {
+            String votosCSV = criaVotos(diretorio);
+            Path cache = Path.of(votosCSV + ".cache");
+            List<String> esperado = descreve(CacheBinario.contaVotos(votosCSV, null, 1));
+            long tamanho = Files.size(cache);
+
+            try (FileChannel canal = FileChannel.open(cache, StandardOpenOption.WRITE)) {
+                canal.truncate(60);
+            }
+            assertEquals(esperado, descreve(CacheBinario.contaVotos(votosCSV, null, 1)), "contagem sem o cache");
+            assertEquals(tamanho, Files.size(cache), "tamanho do cache regravado");
+            assertEquals(esperado, descreve(CacheBinario.contaVotos(votosCSV, null, 1)), "contagem do cache");
+        } finally {
+            apaga(diretorio);
+        }
+    }
+
+    @Test
+    void cacheCorrompidoEhIgnorado() throws IOException {
+        Path diretorio = Files.createTempDirectory("cache-votos");
+        try {
+            String votosCSV = criaVotos(diretorio);
+            Path cache = Path.of(votosCSV + ".cache");
+            List<String> esperado = descreve(CacheBinario.contaVotos(votosCSV, null, 1));
+
+            // Altera um byte no meio dos dados, depois do cabeçalho.
+            try (FileChannel canal = FileChannel.open(cache, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long posicao = canal.size() / 2;
+                ByteBuffer bytes = ByteBuffer.allocate(1);
+                canal.read(bytes, posicao);
+                bytes.put(0, (byte) ~bytes.get(0));
+                bytes.rewind();
+                canal.write(bytes, posicao);
+            }
+            assertEquals(esperado, descreve(CacheBinario.contaVotos(votosCSV, null, 1)), "contagem sem o cache");
+        } finally {
+            apaga(diretorio);
+        }
+    }
+
+    @Test
+    void cacheDeUmMunicipioNaoServeParaTodos() throws IOException {
+        Path diretorio = Files.createTempDirectory("cache-votos");
+        try {
+            String votosCSV = criaVotos(diretorio);
+            List<String> municipio = descreve(CacheBinario.contaVotos(votosCSV, "57053", 1));
+            assertTrue(municipio.stream().allMatch(voto -> voto.startsWith("57053;")), "apenas o município pedido");
+            assertEquals(municipio, descreve(CacheBinario.contaVotos(votosCSV, "57053", 1)), "município do cache");
+
+            List<String> todos = descreve(VotoReader.contaVotos(votosCSV, null));
+            assertEquals(todos, descreve(CacheBinario.contaVotos(votosCSV, null, 1)), "todos os municípios");
+            assertEquals(todos, descreve(CacheBinario.contaVotos(votosCSV, null, 1)), "todos os municípios do cache");
+        } finally {
+            apaga(diretorio);
+        }
+    }
+
+    private static String criaVotos(Path diretorio) throws IOException {
+        StringBuilder csv = new StringBuilder(CABECALHO);
+        for (int i = 0; i < 200; i++) {
+            String municipio = i % 3 == 0 ? "57010" : "57053";
+            csv.append("\"").append(municipio).append("\";\"SÃO JOSÉ\";\"13\";\"")
+                .append(10000 + i % 17).append("\";\"").append(i + 1).append("\"\r\n");
+        }
+        Path arquivo = diretorio.resolve("votos.csv");
+        Files.write(arquivo, csv.toString().getBytes(StandardCharsets.ISO_8859_1));
+        return arquivo.toString();
+    }
+
+    /**
+     * Descreve a contagem como linhas "município;cargo;número=quantidade", em ordem.
+     */
+    static List<String> descreve(AcumuladorVotos contagem) {
+        List<String> votos = new ArrayList<>();
+        contagem.emite(voto -> votos.add(voto.getCodigoMunicipio() + ";" + voto.getCargo() + ";"
+            + voto.getNumVotavel() + "=" + voto.getQuantidade()));
+        Collections.sort(votos);
+        return votos;
+    }
+
+    private static void apaga(Path diretorio) throws IOException {
+        try (var caminhos = Files.walk(diretorio)) {
+            for (Path caminho : (Iterable<Path>) caminhos.sorted((a, b) -> b.compareTo(a))::iterator) {
+                Files.delete(caminho);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Leitura paralela dos votos: com trechos pequenos, que cortam as linhas em qualquer posição,
+ * inclusive dentro de um campo entre aspas com ";", a contagem deve ser igual à da leitura
+ * sequencial.
+ */
+class VotoReaderTest {
+    private static final String CABECALHO =
+        "\"CD_MUNICIPIO\";\"NM_MUNICIPIO\";\"CD_CARGO\";\"NR_VOTAVEL\";\"QT_VOTOS\"\r\n";
+    private static final String NOME_COM_SEPARADOR = "SÃO JOSÉ; DO NORTE";
+
+    @Test
+    void trechosPequenosIguaisALeituraSequencial() throws IOException {
+        Path diretorio = Files.createTempDirectory("votos");
+        try {
+            String votosCSV = criaVotos(diretorio);
+            List<String> todos = CacheBinarioTest.descreve(VotoReader.contaVotos(votosCSV, null));
+            List<String> municipio = CacheBinarioTest.descreve(VotoReader.contaVotos(votosCSV, "57053"));
+            assertEquals(30, todos.size(), "votos distintos na leitura sequencial");
+
+            for (long tamanhoTrecho : new long[] { 1, 2, 3, 7, 16, 41, 100, 333, 1000 }) {
+                String contexto = " com trechos de " + tamanhoTrecho + " bytes";
+                assertEquals(todos, CacheBinarioTest.descreve(VotoReader.contaVotos(votosCSV, null, 3, tamanhoTrecho)),
+                    "todos os municípios" + contexto);
+                assertEquals(municipio, CacheBinarioTest.descreve(VotoReader.contaVotos(votosCSV, "57053", 3, tamanhoTrecho)),
+                    "município filtrado" + contexto);
+            }
+        } finally {
+            Files.deleteIfExists(diretorio.resolve("votos.csv"));
+            Files.delete(diretorio);
+        }
+    }
+
+    @Test
+    void trechoTerminaDentroDoCampoEntreAspas() throws IOException {
+        Path diretorio = Files.createTempDirectory("votos");
+        try {
+            String votosCSV = criaVotos(diretorio);
+            byte[] conteudo = Files.readAllBytes(Path.of(votosCSV));
+            String texto = new String(conteudo, StandardCharsets.ISO_8859_1);
+            int inicioDados = CABECALHO.length();
+            // Posição do ";" dentro das aspas na segunda linha de dados.
+            int separador = texto.indexOf(NOME_COM_SEPARADOR, texto.indexOf('\n', inicioDados)) + "SÃO JOSÉ".length();
+            assertTrue(texto.charAt(separador) == ';', "separador entre aspas");
+
+            // O primeiro trecho termina na linha que contém o separador.
+            long tamanhoTrecho = separador - inicioDados + 1;
+            assertEquals(CacheBinarioTest.descreve(VotoReader.contaVotos(votosCSV, null)),
+                CacheBinarioTest.descreve(VotoReader.contaVotos(votosCSV, null, 2, tamanhoTrecho)), "contagem");
+        } finally {
+            Files.deleteIfExists(diretorio.resolve("votos.csv"));
+            Files.delete(diretorio);
+        }
+    }
+
+    /**
+     * Cria um arquivo de votos em ISO-8859-1 com quebras de linha CRLF, dois municípios e um
+     * nome de município com ";" entre aspas em uma a cada duas linhas.
+     */
+    private static String criaVotos(Path diretorio) throws IOException {
+        StringBuilder csv = new StringBuilder(CABECALHO);
+        for (int i = 0; i < 150; i++) {
+            String municipio = i % 3 == 0 ? "57010" : "57053";
+            String nome = i % 2 == 0 ? "VITÓRIA" : NOME_COM_SEPARADOR;
+            csv.append("\"").append(municipio).append("\";\"").append(nome).append("\";\"13\";\"")
+                .append(10000 + i % 30).append("\";\"").append(i + 1).append("\"\r\n");
+        }
+        Path arquivo = diretorio.resolve("votos.csv");
+        Files.write(arquivo, csv.toString().getBytes(StandardCharsets.ISO_8859_1));
+        return arquivo.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import domain.Candidato;
+import domain.Eleicao;
+import domain.Partido;
+import domain.Voto;
+import enums.Cargo;
+import enums.Genero;
+import enums.Situacao;
+
+/**
+ * Apuração incremental: os votos chegam em ondas, e depois de cada onda os rankings mantidos
+ * pela eleição devem ser iguais aos de uma eleição em modo batch que computou os mesmos votos
+ * de uma só vez e ordena os candidatos na consulta.
+ */
+class ApuracaoIncrementalTest {
+    private static final String MUNICIPIO = "57053";
+    private static final int[] PARTIDOS = { 10, 13, 22, 45 };
+    private static final int CANDIDATOS_POR_PARTIDO = 6;
+    private static final int NUM_ONDAS = 20;
+    private static final int K = 5;
+
+    @Test
+    void rankingsIncrementaisIguaisAosDoBatch() {
+        Random random = new Random(7);
+        Eleicao incremental = novaEleicao();
+        incremental.iniciaApuracaoIncremental();
+        assertTrue(incremental.isApuracaoIncremental());
+        VotacaoService servicoIncremental = new VotacaoService(incremental);
+
+        List<Voto> recebidos = new ArrayList<>();
+        for (int onda = 0; onda < NUM_ONDAS; onda++) {
+            List<Voto> votos = geraOnda(random, 100);
+            servicoIncremental.computaVotos(votos);
+            recebidos.addAll(votos);
+
+            Eleicao batch = novaEleicao();
+            new VotacaoService(batch).computaVotos(recebidos);
+
+            String contexto = " após a onda " + (onda + 1);
+            assertEquals(batch.getTotalVotos(), incremental.getTotalVotos(), "total de votos" + contexto);
+            assertEquals(numeros(batch.getCandidatosMaisVotados()),
+                numeros(incremental.getCandidatosMaisVotados()), "mais votados" + contexto);
+            assertEquals(numeros(batch.getCandidatosMaisVotados(K)),
+                numeros(incremental.getCandidatosMaisVotados(K)), "k mais votados" + contexto);
+            assertEquals(numeros(batch.getCandidatosEleitos()),
+                numeros(incremental.getCandidatosEleitos()), "eleitos" + contexto);
+            assertEquals(numeros(batch.getCandidatosEleitos(K)),
+                numeros(incremental.getCandidatosEleitos(K)), "k eleitos" + contexto);
+        }
+    }
+
+    /**
+     * Cria uma eleição com candidatos próprios; um a cada três candidatos é eleito no arquivo,
+     * e as datas de nascimento se repetem para que os empates sejam desfeitos pelo número.
+     */
+    private static Eleicao novaEleicao() {
+        Eleicao eleicao = new Eleicao(MUNICIPIO);
+        for (int partido : PARTIDOS) {
+            for (int i = 0; i < CANDIDATOS_POR_PARTIDO; i++) {
+                int numero = partido * 1000 + i;
+                Situacao situacao = numero % 3 == 0 ? Situacao.ELEITO_POR_QP : Situacao.NAO_ELEITO;
+                eleicao.addCandidato(new Candidato(
+                    MUNICIPIO, Cargo.VEREADOR, numero,
+                    "CANDIDATO " + numero, new Partido(partido, "P" + partido), -1,
+                    LocalDate.of(1970, 1, 1).plusDays(i % 2), situacao, Genero.MASCULINO
+                ));
+            }
+        }
+        return eleicao;
+    }
+
+    /**
+     * Gera uma onda de votos pequenos, para que os candidatos troquem de posição entre as ondas
+     * e fiquem empatados com frequência.
+     */
+    private static List<Voto> geraOnda(Random random, int quantidade) {
+        List<Voto> votos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            int partido = PARTIDOS[random.nextInt(PARTIDOS.length)];
+            int numVotavel = random.nextInt(8) == 0 ? partido : partido * 1000 + random.nextInt(CANDIDATOS_POR_PARTIDO);
+            votos.add(new Voto(Cargo.VEREADOR, MUNICIPIO, numVotavel, 1 + random.nextInt(3)));
+        }
+        return votos;
+    }
+
+    private static List<Integer> numeros(List<Candidato> candidatos) {
+        List<Integer> numeros = new ArrayList<>();
+        for (Candidato candidato : candidatos) {
+            numeros.add(candidato.getNumero());
+        }
+        return numeros;
+    }
+}
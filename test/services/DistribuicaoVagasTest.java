@@ -0,0 +1,125 @@
+package services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import domain.Candidato;
+import domain.Eleicao;
+import domain.Partido;
+import domain.ResultadoVagas;
+import domain.Voto;
+import enums.Cargo;
+import enums.Genero;
+import enums.Situacao;
+
+/**
+ * Distribuição das vagas em um município pequeno, com resultado calculado à mão: cinco
+ * partidos, dois deles (30 e 40) federados, e votos de legenda para o partido 10.
+ * <pre>
+ * partido 10: 10001 = 280, 10002 = 150, 10003 = 20, legenda = 20 (total 470)
+ * partido 20: 20001 = 200, 20002 = 60                            (total 260)
+ * federação:  30001 = 120, 30002 = 40, 40001 = 100, 40002 = 10  (total 270)
+ * partido 50: 50001 = 30                                         (total 30)
+ * votos válidos: 1030
+ * </pre>
+ */
+class DistribuicaoVagasTest {
+    private static final String MUNICIPIO = "57053";
+    private static final int FEDERACAO = 1;
+
+    /**
+     * Cinco vagas: QE = 206; quocientes partidários 2 (partido 10), 1 (partido 20) e 1
+     * (federação). Na sobra, a maior média é a do partido 10 (470 / 3), mas o seu próximo
+     * candidato (20 votos) não chega a 20% do QE; a vaga fica com a federação (270 / 2),
+     * para o candidato 40001, que é o mais votado restante da federação.
+     */
+    @Test
+    void cincoVagasSobraPulaCandidatoAbaixoDoMinimo() {
+        Eleicao eleicao = novaEleicao();
+        ResultadoVagas resultado = new DistribuicaoVagas(eleicao, 5).calcula();
+
+        assertEquals(1030, resultado.getVotosValidos(), "votos válidos");
+        assertEquals(206, resultado.getQuocienteEleitoral(), "quociente eleitoral");
+        assertEquals(4, resultado.getNumVagasPorQP(), "vagas pelos quocientes partidários");
+        assertEquals(List.of(10001, 10002, 20001, 30001, 40001), numeros(resultado.getEleitos()), "eleitos");
+
+        Map<Partido, Integer> vagasPorPartido = resultado.getVagasPorPartido();
+        assertEquals(2, vagasPorPartido.get(eleicao.findPartido(10)).intValue(), "vagas do partido 10");
+        assertEquals(1, vagasPorPartido.get(eleicao.findPartido(40)).intValue(), "vagas do partido 40");
+    }
+
+    /**
+     * Sete vagas: QE = 147 (1030 / 7 = 147,14); quocientes partidários 3, 1 e 1. As duas
+     * sobras vão para a federação (270 / 2 = 135) e, depois, para o partido 20
+     * (260 / 2 = 130), à frente do partido 10 (470 / 4 = 117,5).
+     */
+    @Test
+    void seteVagasSobrasPelasMaioresMedias() {
+        ResultadoVagas resultado = new DistribuicaoVagas(novaEleicao(), 7).calcula();
+
+        assertEquals(147, resultado.getQuocienteEleitoral(), "quociente eleitoral");
+        assertEquals(5, resultado.getNumVagasPorQP(), "vagas pelos quocientes partidários");
+        assertEquals(List.of(10001, 10002, 10003, 20001, 30001, 40001, 20002),
+            numeros(resultado.getEleitos()), "eleitos");
+    }
+
+    @Test
+    void numeroDeVagasDeveSerPositivo() {
+        Eleicao eleicao = novaEleicao();
+        assertThrows(IllegalArgumentException.class, () -> new DistribuicaoVagas(eleicao, 0));
+    }
+
+    private static Eleicao novaEleicao() {
+        Eleicao eleicao = new Eleicao(MUNICIPIO);
+        adiciona(eleicao, 10, -1, 10001, 10002, 10003);
+        adiciona(eleicao, 20, -1, 20001, 20002);
+        adiciona(eleicao, 30, FEDERACAO, 30001, 30002);
+        adiciona(eleicao, 40, FEDERACAO, 40001, 40002);
+        adiciona(eleicao, 50, -1, 50001);
+
+        List<Voto> votos = new ArrayList<>();
+        votos.add(voto(10001, 280));
+        votos.add(voto(10002, 150));
+        votos.add(voto(10003, 20));
+        votos.add(voto(10, 20));
+        votos.add(voto(20001, 200));
+        votos.add(voto(20002, 60));
+        votos.add(voto(30001, 120));
+        votos.add(voto(30002, 40));
+        votos.add(voto(40001, 100));
+        votos.add(voto(40002, 10));
+        votos.add(voto(50001, 30));
+        new VotacaoService(eleicao).computaVotos(votos);
+        return eleicao;
+    }
+
+    private static void adiciona(Eleicao eleicao, int numeroPartido, int numFederacao, int... numeros) {
+        Partido partido = new Partido(numeroPartido, "P" + numeroPartido);
+        for (int numero : numeros) {
+            eleicao.addCandidato(new Candidato(
+                MUNICIPIO, Cargo.VEREADOR, numero,
+                "CANDIDATO " + numero, partido, numFederacao,
+                LocalDate.of(1970, 1, 1).plusDays(numero), Situacao.NAO_ELEITO, Genero.FEMININO
+            ));
+        }
+    }
+
+    private static Voto voto(int numVotavel, int quantidade) {
+        return new Voto(Cargo.VEREADOR, MUNICIPIO, numVotavel, quantidade);
+    }
+
+    private static List<Integer> numeros(List<Candidato> candidatos) {
+        List<Integer> numeros = new ArrayList<>();
+        for (Candidato candidato : candidatos) {
+            numeros.add(candidato.getNumero());
+        }
+        return numeros;
+    }
+}
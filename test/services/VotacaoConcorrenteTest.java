@@ -0,0 +1,175 @@
+package services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import domain.Candidato;
+import domain.Eleicao;
+import domain.IncrementoVotos;
+import domain.Partido;
+import domain.VersaoApuracao;
+import domain.Voto;
+import enums.Cargo;
+import enums.Genero;
+import enums.Situacao;
+
+/**
+ * Teste de estresse da apuração concorrente: várias threads computam os mesmos votos em uma
+ * única eleição, ao mesmo tempo, e o resultado deve ser igual ao de uma única thread que
+ * computa a mesma quantidade de votos.
+ */
+class VotacaoConcorrenteTest {
+    private static final String MUNICIPIO = "57053";
+    private static final int[] PARTIDOS = { 10, 11, 12, 13, 15, 40, 45 };
+    private static final int CANDIDATOS_POR_PARTIDO = 8;
+    private static final int NUM_THREADS = 8;
+    private static final int RODADAS = 200;
+
+    @Test
+    void computaVotosConcorrenteIgualAoSequencial() throws Exception {
+        List<Voto> votos = geraVotos(new Random(42), 2000);
+
+        Eleicao sequencial = novaEleicao();
+        VotacaoService servicoSequencial = new VotacaoService(sequencial);
+        for (int i = 0; i < NUM_THREADS * RODADAS; i++) {
+            servicoSequencial.computaVotos(votos);
+        }
+
+        Eleicao concorrente = novaEleicao();
+        AtomicBoolean terminou = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS + 1);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<?>> escritores = new ArrayList<>();
+            for (int t = 0; t < NUM_THREADS; t++) {
+                // Metade das threads computa cada lote de uma vez; a outra, voto a voto.
+                boolean votoAVoto = t % 2 == 1;
+                escritores.add(executor.submit(() -> {
+                    largada.await();
+                    VotacaoService servico = new VotacaoService(concorrente);
+                    for (int r = 0; r < RODADAS; r++) {
+                        if (votoAVoto) {
+                            IncrementoVotos incremento = concorrente.novoIncremento();
+                            for (Voto voto : votos) {
+                                servico.computaVoto(voto, incremento);
+                            }
+                            concorrente.aplica(incremento);
+                        } else {
+                            servico.computaVotos(votos);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // Durante a contagem, toda versão publicada deve ter totais coerentes com os candidatos.
+            Future<Integer> leitor = executor.submit(() -> {
+                largada.await();
+                int leituras = 0;
+                while (!terminou.get()) {
+                    verificaTotais(concorrente, concorrente.getVersao());
+                    leituras++;
+                }
+                return leituras;
+            });
+
+            largada.countDown();
+            for (Future<?> escritor : escritores) {
+                escritor.get(1, TimeUnit.MINUTES);
+            }
+            terminou.set(true);
+            assertTrue(leitor.get(1, TimeUnit.MINUTES) > 0);
+        } finally {
+            terminou.set(true);
+            executor.shutdownNow();
+        }
+
+        VersaoApuracao esperada = sequencial.getVersao();
+        VersaoApuracao obtida = concorrente.getVersao();
+        assertTrue(esperada.getTotalVotos() > 0);
+        assertEquals(esperada.getTotalVotos(), obtida.getTotalVotos(), "total de votos");
+        assertEquals(esperada.getTotalVotosNominais(), obtida.getTotalVotosNominais(), "total de votos nominais");
+        assertEquals(esperada.getTotalVotosLegenda(), obtida.getTotalVotosLegenda(), "total de votos de legenda");
+
+        for (int i = 0; i < sequencial.getNumCandidatos(); i++) {
+            Candidato candidato = sequencial.getCandidato(i);
+            int indice = concorrente.findIndiceCandidato(candidato.getIdMunicipio(), candidato.getNumero());
+            assertEquals(esperada.getVotosCandidato(i), obtida.getVotosCandidato(indice),
+                "votos do candidato " + candidato.getNumero());
+        }
+        for (int i = 0; i < sequencial.getPartidos().size(); i++) {
+            int numero = sequencial.getPartidos().get(i).getNumero();
+            int indice = concorrente.findIndicePartido(numero);
+            assertEquals(esperada.getVotosNominais(i), obtida.getVotosNominais(indice),
+                "votos nominais do partido " + numero);
+            assertEquals(esperada.getVotosLegenda(i), obtida.getVotosLegenda(indice),
+                "votos de legenda do partido " + numero);
+        }
+    }
+
+    private static void verificaTotais(Eleicao eleicao, VersaoApuracao versao) {
+        int nominais = 0;
+        for (int i = 0; i < eleicao.getNumCandidatos(); i++) {
+            nominais += versao.getVotosCandidato(i);
+        }
+        int legenda = 0;
+        for (int i = 0; i < eleicao.getPartidos().size(); i++) {
+            legenda += versao.getVotosLegenda(i);
+        }
+        assertEquals(nominais, versao.getTotalVotosNominais(), "votos nominais da versão " + versao.getNumero());
+        assertEquals(legenda, versao.getTotalVotosLegenda(), "votos de legenda da versão " + versao.getNumero());
+    }
+
+    /**
+     * Cria uma eleição com candidatos próprios, pois a contagem altera os candidatos.
+     */
+    private static Eleicao novaEleicao() {
+        Eleicao eleicao = new Eleicao(MUNICIPIO);
+        for (int partido : PARTIDOS) {
+            for (int i = 0; i < CANDIDATOS_POR_PARTIDO; i++) {
+                int numero = partido * 1000 + i;
+                eleicao.addCandidato(new Candidato(
+                    MUNICIPIO, Cargo.VEREADOR, numero,
+                    "CANDIDATO " + numero, new Partido(partido, "P" + partido), -1,
+                    LocalDate.of(1970, 1, 1).plusDays(numero), Situacao.NAO_ELEITO, Genero.FEMININO
+                ));
+            }
+        }
+        return eleicao;
+    }
+
+    /**
+     * Gera votos nominais e de legenda, além de votos que devem ser descartados: nulos e
+     * brancos, de candidatos e partidos desconhecidos e de outro cargo.
+     */
+    private static List<Voto> geraVotos(Random random, int quantidade) {
+        List<Voto> votos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            int partido = PARTIDOS[random.nextInt(PARTIDOS.length)];
+            int numVotavel;
+            Cargo cargo = Cargo.VEREADOR;
+            switch (random.nextInt(10)) {
+                case 0: numVotavel = partido; break;
+                case 1: numVotavel = 95 + random.nextInt(4); break;
+                case 2: numVotavel = partido * 1000 + CANDIDATOS_POR_PARTIDO + random.nextInt(5); break;
+                case 3: numVotavel = 77; break;
+                case 4: numVotavel = partido; cargo = Cargo.PREFEITO; break;
+                default: numVotavel = partido * 1000 + random.nextInt(CANDIDATOS_POR_PARTIDO);
+            }
+            votos.add(new Voto(cargo, MUNICIPIO, numVotavel, 1 + random.nextInt(50)));
+        }
+        return votos;
+    }
+}
@@ -0,0 +1,127 @@
+package util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tokenizador CSV no formato do TSE: separação dos campos, remoção de aspas e espaços,
+ * quebras de linha, texto em ISO-8859-1 e conversões feitas direto dos bytes.
+ */
+class CSVTokenizerTest {
+
+    @Test
+    void separadorEntreAspasFazParteDoCampo() throws IOException {
+        CSVTokenizer tokenizer = tokenizador("\"SÃO JOSÉ; DO NORTE\";\"13\"\n");
+        assertTrue(tokenizer.nextLine(), "linha");
+        assertEquals(2, tokenizer.getNumCampos(), "campos");
+        assertEquals("SÃO JOSÉ; DO NORTE", tokenizer.getString(0), "campo com separador");
+        assertEquals(13, tokenizer.getInt(1), "número");
+        assertFalse(tokenizer.nextLine(), "fim do arquivo");
+    }
+
+    @Test
+    void aspasEEspacosSaoRemovidos() throws IOException {
+        CSVTokenizer tokenizer = tokenizador("  \" ANA \" ; 42 ;\"  \"\n");
+        assertTrue(tokenizer.nextLine(), "linha");
+        assertEquals("ANA", tokenizer.getString(0), "campo entre aspas");
+        assertEquals("42", tokenizer.getString(1), "campo sem aspas");
+        assertEquals(42, tokenizer.getInt(1), "número com espaços");
+        assertEquals("", tokenizer.getString(2), "campo só com espaços");
+    }
+
+    @Test
+    void camposVazios() throws IOException {
+        CSVTokenizer tokenizer = tokenizador("\"\";;\"X\";\n");
+        assertTrue(tokenizer.nextLine(), "linha");
+        assertEquals(4, tokenizer.getNumCampos(), "campos");
+        assertEquals("", tokenizer.getString(0), "aspas vazias");
+        assertEquals("", tokenizer.getString(1), "campo vazio");
+        assertEquals("X", tokenizer.getString(2), "campo preenchido");
+        assertEquals("", tokenizer.getString(3), "campo vazio no fim da linha");
+        assertThrows(NumberFormatException.class, () -> tokenizer.getInt(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> tokenizer.getString(4));
+    }
+
+    @Test
+    void quebrasDeLinhaCRLFEUltimaLinhaSemQuebra() throws IOException {
+        CSVTokenizer tokenizer = tokenizador("\"A\";\"1\"\r\n\"B\";\"2\"\r\n\"C\";\"3\"");
+        for (String esperado : new String[] { "A", "B", "C" }) {
+            assertTrue(tokenizer.nextLine(), "linha " + esperado);
+            assertEquals(2, tokenizer.getNumCampos(), "campos da linha " + esperado);
+            assertEquals(esperado, tokenizer.getString(0), "primeiro campo");
+            assertEquals("ABC".indexOf(esperado) + 1, tokenizer.getInt(1), "último campo sem o \\r");
+        }
+        assertFalse(tokenizer.nextLine(), "fim do arquivo");
+    }
+
+    @Test
+    void linhaMaiorQueOBuffer() throws IOException {
+        String nome = "N".repeat(200_000);
+        CSVTokenizer tokenizer = tokenizador("\"" + nome + "\";\"7\"\n\"B\";\"8\"\n");
+        assertTrue(tokenizer.nextLine(), "linha longa");
+        assertEquals(nome, tokenizer.getString(0), "campo longo");
+        assertEquals(7, tokenizer.getInt(1), "campo após o longo");
+        assertTrue(tokenizer.nextLine(), "linha seguinte");
+        assertEquals(8, tokenizer.getInt(1), "campo da linha seguinte");
+    }
+
+    @Test
+    void ultimaColunaIgnoraCamposPosteriores() throws IOException {
+        CSVTokenizer tokenizer = tokenizador("\"A\";\"B\";\"C\";\"D\"\n\"E\";\"F\";\"G\";\"H\"\n");
+        tokenizer.setUltimaColuna(1);
+        assertTrue(tokenizer.nextLine(), "primeira linha");
+        assertEquals(2, tokenizer.getNumCampos(), "campos separados");
+        assertEquals("B", tokenizer.getString(1), "última coluna");
+        assertTrue(tokenizer.nextLine(), "segunda linha");
+        assertEquals("E", tokenizer.getString(0), "primeira coluna da segunda linha");
+    }
+
+    @Test
+    void textoEmISO88591() throws IOException {
+        CSVTokenizer tokenizer = tokenizador("\"GOVERNADOR CELSO RAMOS\";\"JOÃO\";\"Ç\"\n");
+        assertTrue(tokenizer.nextLine(), "linha");
+        assertEquals("JOÃO", tokenizer.getString(1), "texto acentuado");
+        assertEquals(4, tokenizer.getBytes(1).length, "um byte por caractere");
+        assertTrue(tokenizer.campoIgual(1, "JOÃO".getBytes(StandardCharsets.ISO_8859_1)), "bytes em ISO-8859-1");
+        assertFalse(tokenizer.campoIgual(1, "JOÃO".getBytes(StandardCharsets.UTF_8)), "bytes em UTF-8");
+        assertFalse(tokenizer.campoIgual(1, "JOAO".getBytes(StandardCharsets.ISO_8859_1)), "sem acento");
+        assertFalse(tokenizer.campoIgual(2, "".getBytes(StandardCharsets.ISO_8859_1)), "tamanho diferente");
+    }
+
+    @Test
+    void inteirosForaDoIntervaloSaoRejeitados() throws IOException {
+        CSVTokenizer tokenizer = tokenizador(
+            "\"2147483647\";\"-2147483648\";\"2147483648\";\"-2147483649\";\"99999999999\";\"-\";\"12a\";\"0042\"\n");
+        assertTrue(tokenizer.nextLine(), "linha");
+        assertEquals(Integer.MAX_VALUE, tokenizer.getInt(0), "maior int");
+        assertEquals(Integer.MIN_VALUE, tokenizer.getInt(1), "menor int");
+        for (int campo = 2; campo <= 6; campo++) {
+            int indice = campo;
+            assertThrows(NumberFormatException.class, () -> tokenizer.getInt(indice));
+        }
+        assertEquals(42, tokenizer.getInt(7), "zeros à esquerda");
+    }
+
+    @Test
+    void datas() throws IOException {
+        CSVTokenizer tokenizer = tokenizador("\"06/10/2024\";\"6/10/2024\";\"06-10-2024\";\"31/02/2024\"\n");
+        assertTrue(tokenizer.nextLine(), "linha");
+        assertEquals(LocalDate.of(2024, 10, 6), tokenizer.getData(0), "data");
+        assertThrows(NumberFormatException.class, () -> tokenizer.getData(1));
+        assertThrows(NumberFormatException.class, () -> tokenizer.getData(2));
+        assertThrows(RuntimeException.class, () -> tokenizer.getData(3));
+    }
+
+    private static CSVTokenizer tokenizador(String texto) {
+        return new CSVTokenizer(new ByteArrayInputStream(texto.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+}